@@ -0,0 +1,6 @@
+# Runs the JMH benchmarks, writing machine-readable results to bench_results.json
+# JMH_CLASSPATH must list the jmh-core, jmh-generator-annprocess, jopt-simple and commons-math3 jars
+# Extra arguments are passed to JMH, e.g. a benchmark name pattern or -p positionName=opening
+mkdir bin
+javac -cp "$JMH_CLASSPATH" -d bin chess/*.java chess/benchmarks/*.java
+java -cp "bin:$JMH_CLASSPATH" org.openjdk.jmh.Main -rf json -rff bench_results.json "$@"
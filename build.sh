@@ -1,3 +1,3 @@
 mkdir bin
-javac -d bin chess/*.java chess/gui/*.java
+javac -d bin chess/*.java chess/gui/*.java chess/perft/*.java chess/engine/*.java chess/uci/*.java chess/pgn/*.java chess/archive/*.java chess/selfplay/*.java
 cp -r icons bin/icons
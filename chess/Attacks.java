@@ -0,0 +1,398 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Attacks: A class that looks up the bitboard of squares each type of piece attacks
+ *
+ * How each type of piece moves is described by a Movement, see MOVEMENTS, and all
+ * tables are built once, when the class is loaded. Leaping pieces use a table
+ * with one entry per square. Sliding pieces use magic bitboards: the occupied
+ * squares along a piece's lines are multiplied by a per-square magic number,
+ * whose top bits then index a table of precomputed attacks.
+ */
+public class Attacks {
+
+	public static final Movement PAWN_MOVEMENT = Movement.leaper(new int[]{ 1, 1 }, new int[]{ 1, -1 });
+	public static final Movement KNIGHT_MOVEMENT = Movement.leaper(Movement.KNIGHT_OFFSETS);
+	public static final Movement BISHOP_MOVEMENT = Movement.rider(Movement.DIAGONAL_DIRECTIONS);
+	public static final Movement ROOK_MOVEMENT = Movement.rider(Movement.ORTHOGONAL_DIRECTIONS);
+	public static final Movement QUEEN_MOVEMENT = ROOK_MOVEMENT.plus(BISHOP_MOVEMENT);
+	public static final Movement KING_MOVEMENT = Movement.leaper(Movement.ALL_DIRECTIONS);
+	public static final Movement MEGAROOK_MOVEMENT = Movement.jumper(Movement.ORTHOGONAL_DIRECTIONS);
+
+	/**
+	 * The movement of each type of piece, indexed by type and then by move parity,
+	 * with a single movement for types whose movement doesn't alternate
+	 * Pawns only attack this way, their moves forward are added by Position.
+	 */
+	private static final Movement[][] MOVEMENTS = new Movement[][]{
+		new Movement[]{ PAWN_MOVEMENT },
+		new Movement[]{ KNIGHT_MOVEMENT },
+		new Movement[]{ BISHOP_MOVEMENT },
+		new Movement[]{ ROOK_MOVEMENT },
+		new Movement[]{ QUEEN_MOVEMENT },
+		new Movement[]{ KING_MOVEMENT },
+		new Movement[]{ MEGAROOK_MOVEMENT },
+		new Movement[]{ QUEEN_MOVEMENT, KING_MOVEMENT }
+	};
+
+	// MOVEMENTS indexed by type * 2 + move parity, with movements that don't alternate repeated
+	private static final Movement[] MOVEMENTS_BY_PARITY = new Movement[2 * Position.NUM_PIECE_TYPES];
+	static {
+		for(int type = 0; type < Position.NUM_PIECE_TYPES; type++) {
+			MOVEMENTS_BY_PARITY[2 * type] = MOVEMENTS[type][0];
+			MOVEMENTS_BY_PARITY[2 * type + 1] = MOVEMENTS[type][MOVEMENTS[type].length - 1];
+		}
+	}
+
+	/*
+	 * Magic multipliers for each square, found offline by random search
+	 */
+	private static final long[] ROOK_MAGICS = new long[]{
+		0x1880002010400080L, 0x40C0100120004008L, 0x2080081006802000L, 0x0100090020041000L,
+		0x0200020021840810L, 0x0200020061100428L, 0x1080420000800100L, 0x030000830002284EL,
+		0x4501002080004100L, 0x0010401000200040L, 0x0102801000802000L, 0x0000800800100086L,
+		0x8202000420120008L, 0x0801000804010002L, 0x0019000100620004L, 0x000600010084105AL,
+		0xA020008080004000L, 0x0410064000200350L, 0x8A50820012004028L, 0x0030220012000840L,
+		0x0400808008000400L, 0x0000808002000401L, 0x0001008080020001L, 0x18120A0000904704L,
+		0x0400802180004000L, 0x0000500840002001L, 0x0082008200204011L, 0x49002042000A0010L,
+		0x9008080100100500L, 0x0044020080800400L, 0x0092004040800100L, 0x1802008200012844L,
+		0x0180062008400040L, 0x1040008050802004L, 0x2900120082004021L, 0x0002801004800800L,
+		0x044C000480800802L, 0x1014010040400200L, 0x0404020001010004L, 0x0402004402000081L,
+		0x004000804024800AL, 0x0300500020004002L, 0x8000200103130040L, 0x0080120020420008L,
+		0x0008000402004040L, 0x1601000400030008L, 0x0000100188040002L, 0x048100284081000AL,
+		0x0810402089020200L, 0x0400400020100040L, 0x8410100020008080L, 0x0210040800108080L,
+		0x0900080100100500L, 0x0014008002000480L, 0x0002000801040200L, 0x200004012E418200L,
+		0x1180130024408001L, 0x0002001100A24582L, 0x8000401200082082L, 0x3000082004100101L,
+		0x0402000560900802L, 0x0002009004080102L, 0x004008211000A224L, 0x4000044029008C06L
+	};
+
+	private static final long[] BISHOP_MAGICS = new long[]{
+		0xC021204A0C430020L, 0x4060088101002000L, 0x0608084040800021L, 0x0008060042100202L,
+		0x0021104108010000L, 0x060110080482E010L, 0x0800883C02A04000L, 0x0030840C02020200L,
+		0x120078420842140AL, 0x0000902101310208L, 0x0340840102060069L, 0x2400422082004110L,
+		0x000904042000000CL, 0x0020120802080201L, 0x800C220090041210L, 0x00000A0080C41020L,
+		0x0004102004900200L, 0x00044009410C0400L, 0xA210004812801491L, 0x0445004801C10022L,
+		0x0054000211040805L, 0x2081004090109002L, 0x0400400602122021L, 0x0A06004114451400L,
+		0x0422110009509008L, 0x0049210210840100L, 0x0800300088044440L, 0x0019080044004050L,
+		0x2E8300100300C00AL, 0x80190200010080C0L, 0x020A004004090810L, 0x0000810881340200L,
+		0x0012110440410801L, 0x0204424208185004L, 0x000D010100408402L, 0x00044048002A8200L,
+		0x0420408020020200L, 0x0030108920220201L, 0x0202020402504400L, 0x01008C0040211100L,
+		0x4832022120020520L, 0x2021080190000400L, 0x0050402410000100L, 0x0000002018048100L,
+		0x0400880104002040L, 0x4140008800800444L, 0x8088820800408200L, 0x0010020228408020L,
+		0x21045808080800C0L, 0x1003008090280600L, 0x0080420601112808L, 0x1000000042020004L,
+		0x8000080405040000L, 0x0004202002922000L, 0x0221851908050000L, 0x521002680044840AL,
+		0x4103802088044080L, 0x6021430404848408L, 0x000000204E01B008L, 0x5000440404840400L,
+		0x0001010012020208L, 0x080100C122041102L, 0x0004200202421400L, 0x8020410108088080L
+	};
+
+	// Attack tables for leaping pieces, indexed by square
+	private static final long[] KNIGHT_ATTACKS = KNIGHT_MOVEMENT.getFixedAttacks(Position.WHITE);
+	private static final long[] KING_ATTACKS = KING_MOVEMENT.getFixedAttacks(Position.WHITE);
+	private static final long[] MEGAROOK_ATTACKS = MEGAROOK_MOVEMENT.getFixedAttacks(Position.WHITE);
+	private static final long[][] PAWN_ATTACKS = new long[][]{
+		PAWN_MOVEMENT.getFixedAttacks(Position.WHITE), PAWN_MOVEMENT.getFixedAttacks(Position.BLACK)
+	};
+
+	// The squares whose occupancy can block a slider on each square, excluding board edges
+	private static final long[] ROOK_MASKS = new long[Bitboards.NUM_SQUARES];
+	private static final long[] BISHOP_MASKS = new long[Bitboards.NUM_SQUARES];
+
+	// The number of bits to shift a magic product by, 64 minus the number of mask bits
+	private static final int[] ROOK_SHIFTS = new int[Bitboards.NUM_SQUARES];
+	private static final int[] BISHOP_SHIFTS = new int[Bitboards.NUM_SQUARES];
+
+	// Attack tables for sliding pieces, indexed by square, then by magic index
+	private static final long[][] ROOK_ATTACKS = new long[Bitboards.NUM_SQUARES][];
+	private static final long[][] BISHOP_ATTACKS = new long[Bitboards.NUM_SQUARES][];
+
+	// For each pair of squares sharing a row, column or diagonal,
+	// the squares strictly between them, and the whole line through them
+	private static final long[][] BETWEEN = new long[Bitboards.NUM_SQUARES][Bitboards.NUM_SQUARES];
+	private static final long[][] LINE = new long[Bitboards.NUM_SQUARES][Bitboards.NUM_SQUARES];
+
+	/*
+	 * For finding the pieces of each color that attack a square by looking outwards from it,
+	 * see Position.getAttackers(). Pieces are put in groups by their reversed movement.
+	 * Leaping and jumping pieces with the same reversed leaps and jumps share a group with a
+	 * table of the squares they attack each square from. Riding pieces are grouped the same way
+	 * by their reversed rays along rows and columns, and separately by those along diagonals,
+	 * which mask the lines a Rook or Bishop would attack from the square. Each color numbers its
+	 * groups of leaping pieces first, then those riding along rows and columns, then along diagonals.
+	 * The tables of all of a color's groups are kept together, indexed by square and then group.
+	 */
+	private static final long[][] GROUP_TABLES = new long[2][];
+	private static final int[] GROUP_COUNTS = new int[2];
+	private static final int[] LEAPER_GROUP_COUNTS = new int[2];
+	private static final int[] ORTHOGONAL_GROUP_COUNTS = new int[2];
+
+	// The groups each piece code belongs to, indexed by 2 * code + move parity
+	private static final int[][] GROUPS = new int[4 * Position.NUM_PIECE_TYPES][];
+
+	static {
+		for(int square = 0; square < Bitboards.NUM_SQUARES; square++) {
+			ROOK_MASKS[square] = blockerMask(square, Movement.ORTHOGONAL_DIRECTIONS);
+			BISHOP_MASKS[square] = blockerMask(square, Movement.DIAGONAL_DIRECTIONS);
+			ROOK_SHIFTS[square] = 64 - Long.bitCount(ROOK_MASKS[square]);
+			BISHOP_SHIFTS[square] = 64 - Long.bitCount(BISHOP_MASKS[square]);
+			ROOK_ATTACKS[square] = buildSliderTable(square, ROOK_MASKS[square], ROOK_MAGICS[square],
+					ROOK_SHIFTS[square], Movement.ORTHOGONAL_DIRECTIONS);
+			BISHOP_ATTACKS[square] = buildSliderTable(square, BISHOP_MASKS[square], BISHOP_MAGICS[square],
+					BISHOP_SHIFTS[square], Movement.DIAGONAL_DIRECTIONS);
+
+			buildLines(square);
+		}
+
+		for(int color = Position.WHITE; color <= Position.BLACK; color++) {
+			buildGroups(color);
+		}
+	}
+
+	public static long knight(int square) {
+		return KNIGHT_ATTACKS[square];
+	}
+
+	public static long king(int square) {
+		return KING_ATTACKS[square];
+	}
+
+	/**
+	 * @returns The squares a pawn of the given color attacks diagonally
+	 */
+	public static long pawn(int color, int square) {
+		return PAWN_ATTACKS[color][square];
+	}
+
+	public static long rook(int square, long occupied) {
+		int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+		return ROOK_ATTACKS[square][index];
+	}
+
+	public static long bishop(int square, long occupied) {
+		int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+		return BISHOP_ATTACKS[square][index];
+	}
+
+	public static long queen(int square, long occupied) {
+		return rook(square, occupied) | bishop(square, occupied);
+	}
+
+	/**
+	 * MegaRooks jump any pieces in their way, so their attacks ignore occupancy
+	 */
+	public static long megaRook(int square) {
+		return MEGAROOK_ATTACKS[square];
+	}
+
+	/**
+	 * @param oddParity Whether the FlipFlopper has taken an odd number of moves,
+	 * in which case it moves like a King rather than a Queen
+	 */
+	public static long flipFlopper(int square, long occupied, boolean oddParity) {
+		return oddParity ? king(square) : queen(square, occupied);
+	}
+
+	/**
+	 * @returns The squares strictly between two squares that share a row,
+	 * column or diagonal, or an empty bitboard if they share none
+	 */
+	public static long between(int from, int to) {
+		return BETWEEN[from][to];
+	}
+
+	/**
+	 * @returns Every square on the row, column or diagonal through both squares,
+	 * or an empty bitboard if they share none
+	 */
+	public static long line(int from, int to) {
+		return LINE[from][to];
+	}
+
+	/**
+	 * @returns The squares attacked by a piece of the given type and color
+	 * @param occupied The bitboard of all occupied squares, which block sliding pieces
+	 * @param oddParity The move parity of the piece, if its movement alternates like a FlipFlopper's
+	 */
+	public static long of(int type, int color, int square, long occupied, boolean oddParity) {
+		return getMovement(type, oddParity).attacks(color, square, occupied);
+	}
+
+	/**
+	 * @returns How a piece of the given type moves
+	 * @param oddParity The move parity of the piece, if its movement alternates like a FlipFlopper's
+	 */
+	public static Movement getMovement(int type, boolean oddParity) {
+		return MOVEMENTS_BY_PARITY[oddParity ? 2 * type + 1 : 2 * type];
+	}
+
+	/**
+	 * @returns The number of groups the pieces of the given color are put in to find the
+	 * squares they attack, see getGroups()
+	 */
+	public static int getGroupCount(int color) {
+		return GROUP_COUNTS[color];
+	}
+
+	/**
+	 * @returns The groups a piece belongs to, numbered from 0 up to getGroupCount()
+	 * @param oddParity The move parity of the piece, if its movement alternates like a FlipFlopper's
+	 */
+	public static int[] getGroups(int pieceCode, boolean oddParity) {
+		return GROUPS[oddParity ? 2 * pieceCode + 1 : 2 * pieceCode];
+	}
+
+	/**
+	 * @returns The number of groups of the given color whose pieces leap or jump, which come first
+	 */
+	public static int getLeaperGroupCount(int color) {
+		return LEAPER_GROUP_COUNTS[color];
+	}
+
+	/**
+	 * @returns The number of groups of the given color whose pieces ride along rows and columns,
+	 * which come next, before those riding along diagonals
+	 */
+	public static int getOrthogonalGroupCount(int color) {
+		return ORTHOGONAL_GROUP_COUNTS[color];
+	}
+
+	/**
+	 * @returns The table of the groups of the given color, indexed by square * getGroupCount() + group
+	 * For a group of leaping pieces it holds the squares they attack the square from, and for a
+	 * group of riding pieces the squares along its lines they attack it from on an empty board.
+	 * Riding pieces can be blocked, and so can also pin.
+	 */
+	public static long[] getGroupTable(int color) {
+		return GROUP_TABLES[color];
+	}
+
+	/**
+	 * Groups the pieces of the given color by their reversed movements
+	 */
+	private static void buildGroups(int color) {
+		List<long[]> leaperTables = new ArrayList<long[]>();
+		List<long[]> orthogonalTables = new ArrayList<long[]>();
+		List<long[]> diagonalTables = new ArrayList<long[]>();
+
+		// First find each piece's group of each kind, -1 if it has none
+		int[][][] memberships = new int[Position.NUM_PIECE_TYPES][2][];
+		for(int type = 0; type < Position.NUM_PIECE_TYPES; type++) {
+			for(int parity = 0; parity < 2; parity++) {
+				Movement reversed = getMovement(type, parity == 1).reversed();
+				memberships[type][parity] = new int[]{
+					reversed.hasFixedAttacks() ? findGroup(leaperTables, reversed.getFixedAttacks(color)) : -1,
+					reversed.ridesOrthogonally() ? findGroup(orthogonalTables, reversed.getOrthogonalRays(color)) : -1,
+					reversed.ridesDiagonally() ? findGroup(diagonalTables, reversed.getDiagonalRays(color)) : -1
+				};
+			} // END FOR
+		} // END FOR
+
+		// Then number them, leapers first, then riders along rows and columns, then along diagonals
+		int[] firstGroups = new int[]{ 0, leaperTables.size(), leaperTables.size() + orthogonalTables.size() };
+
+		List<long[]> tables = new ArrayList<long[]>(leaperTables);
+		tables.addAll(orthogonalTables);
+		tables.addAll(diagonalTables);
+		int groupCount = tables.size();
+		GROUP_COUNTS[color] = groupCount;
+		LEAPER_GROUP_COUNTS[color] = leaperTables.size();
+		ORTHOGONAL_GROUP_COUNTS[color] = orthogonalTables.size();
+		GROUP_TABLES[color] = new long[Bitboards.NUM_SQUARES * groupCount];
+		for(int group = 0; group < groupCount; group++) {
+			for(int square = 0; square < Bitboards.NUM_SQUARES; square++) {
+				GROUP_TABLES[color][square * groupCount + group] = tables.get(group)[square];
+			}
+		}
+
+		for(int type = 0; type < Position.NUM_PIECE_TYPES; type++) {
+			for(int parity = 0; parity < 2; parity++) {
+				int[] groups = new int[0];
+				for(int kind = 0; kind < firstGroups.length; kind++) {
+					int group = memberships[type][parity][kind];
+					if(group < 0) continue;
+					groups = Arrays.copyOf(groups, groups.length + 1);
+					groups[groups.length - 1] = firstGroups[kind] + group;
+				} // END FOR
+				GROUPS[2 * Position.pieceCode(color, type) + parity] = groups;
+			} // END FOR
+		} // END FOR
+	}
+
+	/**
+	 * @returns The index of the given table among the tables, adding it if it isn't there yet
+	 */
+	private static int findGroup(List<long[]> tables, long[] table) {
+		for(int group = 0; group < tables.size(); group++) {
+			if(Arrays.equals(tables.get(group), table)) return group;
+		}
+		tables.add(table);
+		return tables.size() - 1;
+	}
+
+	/**
+	 * Fills the between and line tables for every square aligned with the given one
+	 */
+	private static void buildLines(int square) {
+		int row = Bitboards.row(square);
+		int col = Bitboards.col(square);
+		for(int[] direction : Movement.ALL_DIRECTIONS) {
+			long fullLine = Bitboards.bit(square) |
+				Movement.slide(square, 0L, new int[][]{ direction, new int[]{ -direction[0], -direction[1] } });
+
+			long between = 0L;
+			int targetRow = row + direction[0];
+			int targetCol = col + direction[1];
+			while(Movement.isOnBoard(targetRow, targetCol)) {
+				int target = Bitboards.square(targetRow, targetCol);
+				BETWEEN[square][target] = between;
+				LINE[square][target] = fullLine;
+
+				between |= Bitboards.bit(target);
+				targetRow += direction[0];
+				targetCol += direction[1];
+			} // END WHILE
+		} // END FOR
+	}
+
+	/**
+	 * Fills a slider's attack table by enumerating every subset of its blocker mask
+	 */
+	private static long[] buildSliderTable(int square, long mask, long magic, int shift, int[][] directions) {
+		long[] table = new long[1 << (64 - shift)];
+
+		// Walk all subsets of the mask with the carry-rippler trick
+		long blockers = 0L;
+		do {
+			int index = (int) ((blockers * magic) >>> shift);
+			table[index] = Movement.slide(square, blockers, directions);
+			blockers = (blockers - mask) & mask;
+		} while(blockers != 0);
+
+		return table;
+	}
+
+	/**
+	 * @returns The squares along the given directions whose occupancy could block
+	 * a slider, which excludes the last square in each direction
+	 */
+	private static long blockerMask(int square, int[][] directions) {
+		long mask = 0L;
+		int row = Bitboards.row(square);
+		int col = Bitboards.col(square);
+		for(int[] direction : directions) {
+			int targetRow = row + direction[0];
+			int targetCol = col + direction[1];
+
+			while(Movement.isOnBoard(targetRow + direction[0], targetCol + direction[1])) {
+				mask |= Bitboards.bit(Bitboards.square(targetRow, targetCol));
+				targetRow += direction[0];
+				targetCol += direction[1];
+			} // END WHILE
+		} // END FOR
+		return mask;
+	}
+
+}
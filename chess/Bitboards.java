@@ -0,0 +1,102 @@
+package chess;
+
+/**
+ * Bitboards: A class containing utilities for working with bitboards
+ *
+ * A bitboard is a long in which each bit represents one spot on the board.
+ * Square 0 is the bottom-left spot (0, 0), and squares increase along each row,
+ * so the square of a spot is row * NUM_COLS + col
+ */
+public class Bitboards {
+
+	/**
+	 * The number of squares on the board
+	 */
+	public static final int NUM_SQUARES = Chess.NUM_ROWS * Chess.NUM_COLS;
+
+	/**
+	 * Bitboards with every spot in the leftmost or rightmost column set
+	 */
+	public static final long LEFT_COL = 0x0101010101010101L;
+	public static final long RIGHT_COL = LEFT_COL << (Chess.NUM_COLS - 1);
+
+	/**
+	 * @returns The square index of the given coordinates
+	 */
+	public static int square(int row, int col) {
+		return row * Chess.NUM_COLS + col;
+	}
+
+	public static int row(int square) {
+		return square / Chess.NUM_COLS;
+	}
+
+	public static int col(int square) {
+		return square % Chess.NUM_COLS;
+	}
+
+	/**
+	 * @returns The name of the given square in algebraic notation, a letter for
+	 * the column followed by a number for the row, e.g. "a1" for square 0
+	 */
+	public static String squareName(int square) {
+		return "" + (char) ('a' + col(square)) + (char) ('1' + row(square));
+	}
+
+	/**
+	 * @returns The square named in algebraic notation by the two characters
+	 * at the given index, or -1 if they don't name a square
+	 */
+	public static int parseSquare(CharSequence name, int index) {
+		if(index + 2 > name.length()) return -1;
+
+		int col = name.charAt(index) - 'a';
+		int row = name.charAt(index + 1) - '1';
+		if(col < 0 || col >= Chess.NUM_COLS || row < 0 || row >= Chess.NUM_ROWS) return -1;
+		return square(row, col);
+	}
+
+	/**
+	 * @returns A bitboard with only the given square set
+	 */
+	public static long bit(int square) {
+		return 1L << square;
+	}
+
+	/**
+	 * @returns Whether the given square is set in the bitboard
+	 */
+	public static boolean contains(long bitboard, int square) {
+		return (bitboard & (1L << square)) != 0;
+	}
+
+	/**
+	 * @returns The lowest square set in the bitboard, or -1 if it is empty
+	 */
+	public static int firstSquare(long bitboard) {
+		if(bitboard == 0) return -1;
+		return Long.numberOfTrailingZeros(bitboard);
+	}
+
+	/**
+	 * @returns The number of squares set in the bitboard
+	 */
+	public static int count(long bitboard) {
+		return Long.bitCount(bitboard);
+	}
+
+	/**
+	 * @returns A display string with one line per row, top row first
+	 */
+	public static String toString(long bitboard) {
+		String out = "";
+		for(int row = Chess.NUM_ROWS - 1; row >= 0; row--) {
+			for(int col = 0; col < Chess.NUM_COLS; col++) {
+				out += contains(bitboard, square(row, col)) ? "1" : ".";
+			}
+			out += "\n";
+		}
+		return out;
+	}
+
+}
@@ -2,6 +2,9 @@ package chess;
 
 /**
  * Board: A class representing a chess board
+ *
+ * The board's spots are a view of its Position, which is
+ * updated whenever a piece is placed on or removed from a spot
  */
 
 public class Board {
@@ -28,11 +31,25 @@ public class Board {
 		}
 
 		public Piece getPiece() { return piece; }
-		public void setPiece(Piece piece) { this.piece = piece; }
+
+		public void setPiece(Piece piece) {
+			this.piece = piece;
+			if(!isValidSpot(row, col)) return;
+
+			if(piece == null)
+				position.setSquare(getSquare(), Position.NO_PIECE, false);
+			else
+				position.setSquare(getSquare(), piece.getCode(), piece.getMoveParity() == 1);
+		}
 
 		public int getRow() { return this.row; }
 		public int getCol() { return this.col; }
 
+		/**
+		 * @returns The index of this spot in its board's bitboards
+		 */
+		public int getSquare() { return Bitboards.square(row, col); }
+
 		/**
 		 * Returns the color of this spot
 		 * Bottom-left corner (0,0) is black
@@ -74,6 +91,9 @@ public class Board {
 
 	private final Spot[][] spots = new Spot[Chess.NUM_ROWS][Chess.NUM_COLS];
 
+	// The bitboard representation of the pieces on this board
+	private final Position position = new Position();
+
 	/**
 	 * Initializes an empty chess board
 	 */
@@ -96,6 +116,17 @@ public class Board {
 			return new Spot(row, col);
 	}
 
+	/**
+	 * @returns The spot with the given square index
+	 */
+	public Spot getSpot(int square) {
+		return spots[Bitboards.row(square)][Bitboards.col(square)];
+	}
+
+	public Position getPosition() {
+		return position;
+	}
+
 	/**
 	 * @returns Whether the given coordinates lie on the board
 	 */
@@ -1,7 +1,5 @@
 package chess;
 
-import java.lang.Exception;
-
 /**
  * Chess: A class containing utilities and constants relating to chess
  */
@@ -35,6 +33,59 @@ public class Chess {
 		}
 	}
 
+	/**
+	 * PieceFactory: An interface for creating a piece of a particular type,
+	 * implemented by the constructors of the Piece subclasses
+	 */
+	public static interface PieceFactory {
+		Piece create(Game game, Color color, Board.Spot spot);
+	}
+
+	/**
+	 * The types of chess pieces, including custom pieces, with the class and factory of each
+	 * A type's ordinal is its index among a Position's bitboards
+	 */
+	public static enum PieceType {
+		PAWN(Pawn.class, Pawn::new),
+		KNIGHT(Knight.class, Knight::new),
+		BISHOP(Bishop.class, Bishop::new),
+		ROOK(Rook.class, Rook::new),
+		QUEEN(Queen.class, Queen::new),
+		KING(King.class, King::new),
+		MEGAROOK(MegaRook.class, MegaRook::new),
+		FLIPFLOPPER(FlipFlopper.class, FlipFlopper::new);
+
+		private final Class<? extends Piece> pieceClass;
+		private final PieceFactory factory;
+
+		private PieceType(Class<? extends Piece> pieceClass, PieceFactory factory) {
+			this.pieceClass = pieceClass;
+			this.factory = factory;
+		}
+
+		public Class<? extends Piece> getPieceClass() {
+			return pieceClass;
+		}
+
+		/**
+		 * @returns A new piece of this type, placed on the given spot
+		 */
+		public Piece create(Game game, Color color, Board.Spot spot) {
+			return factory.create(game, color, spot);
+		}
+
+		/**
+		 * @returns The type whose pieces are of the given class
+		 * @throws ChessError If the class is not one of the piece classes
+		 */
+		public static PieceType of(Class<? extends Piece> pieceClass) {
+			for(PieceType type : values()) {
+				if(type.pieceClass == pieceClass) return type;
+			}
+			throw new ChessError("Unknown piece class " + pieceClass.getName());
+		}
+	}
+
 	/**
 	 * Returns the color that is not passed as an argument
 	 */
@@ -55,16 +106,19 @@ public class Chess {
 	/*
 	 * BACK_ROW and FRONT_ROW represent starting piece configurations
 	 */
-	public static final Class[] BACK_ROW = new Class[] {
-		Rook.class, Knight.class, Bishop.class, Queen.class, King.class, Bishop.class, Knight.class, Rook.class
+	public static final PieceType[] BACK_ROW = new PieceType[] {
+		PieceType.ROOK, PieceType.KNIGHT, PieceType.BISHOP, PieceType.QUEEN,
+		PieceType.KING, PieceType.BISHOP, PieceType.KNIGHT, PieceType.ROOK
 	};
 
-	public static final Class[] FRONT_ROW = new Class[] {
-		Pawn.class, Pawn.class, Pawn.class, Pawn.class, Pawn.class, Pawn.class, Pawn.class, Pawn.class
+	public static final PieceType[] FRONT_ROW = new PieceType[] {
+		PieceType.PAWN, PieceType.PAWN, PieceType.PAWN, PieceType.PAWN,
+		PieceType.PAWN, PieceType.PAWN, PieceType.PAWN, PieceType.PAWN
 	};
 	
-	public static final Class[] CUSTOM_BACK_ROW = new Class[] {
-			MegaRook.class, Knight.class, Bishop.class, Queen.class, King.class, Bishop.class, FlipFlopper.class, Rook.class
+	public static final PieceType[] CUSTOM_BACK_ROW = new PieceType[] {
+			PieceType.MEGAROOK, PieceType.KNIGHT, PieceType.BISHOP, PieceType.QUEEN,
+			PieceType.KING, PieceType.BISHOP, PieceType.FLIPFLOPPER, PieceType.ROOK
 	};
 
 	/**
@@ -78,10 +132,10 @@ public class Chess {
 		// The row number this configuration is meant for
 		public int row;
 
-		// The pieces, in order, that should populate this row
-		public Class[] pieces;
+		// The types of the pieces, in order, that should populate this row
+		public PieceType[] pieces;
 
-		public RowConfiguration(Chess.Color sideColor, int row, Class[] pieces) {
+		public RowConfiguration(Chess.Color sideColor, int row, PieceType[] pieces) {
 			this.sideColor = sideColor;
 			this.row = row;
 			this.pieces = pieces;
@@ -94,6 +148,10 @@ public class Chess {
 		Chess.useCustom = useCustom;
 	}
 	
+	public static boolean isUsingCustomPieces() {
+		return useCustom;
+	}
+	
 	public static RowConfiguration[] getRowConfigurations() {
 		
 		if(useCustom) {
@@ -0,0 +1,187 @@
+package chess;
+
+/**
+ * Fen: A class that reads and writes positions in Forsyth-Edwards Notation
+ *
+ * Besides the usual letters PNBRQK, M stands for a MegaRook and F for a
+ * FlipFlopper, uppercase for White and lowercase for Black. An optional
+ * seventh field lists the squares of the FlipFloppers that have taken an odd
+ * number of moves, e.g. "g1c6", or "-" if there are none.
+ *
+ * This game has no castling, en passant or fifty-move rule, so those fields
+ * are written as "-", "-", "0" and "1", and skipped when read.
+ */
+public class Fen {
+
+	public static final String STANDARD_START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+	public static final String CUSTOM_START = "mnbqkbfr/pppppppp/8/8/8/8/PPPPPPPP/MNBQKBFR w - - 0 1";
+
+	// The letter of each piece type, indexed by Position type index
+	private static final String PIECE_LETTERS = "PNBRQKMF";
+
+	// The fields between the side to move and the FlipFlopper parities
+	private static final int SKIPPED_FIELDS = 4;
+
+	/**
+	 * Sets up the given position from FEN, replacing whatever it held
+	 * Reads the string in place, without allocating
+	 * @throws Chess.ChessError If the string is not valid FEN, or either side has no king,
+	 * more than one king, or more than Position.MAX_PIECES_PER_SIDE pieces
+	 */
+	public static void parse(CharSequence fen, Position position) {
+		position.clear();
+		int length = fen.length();
+		int index = skipSpaces(fen, 0);
+
+		// Piece placement, top row first
+		int row = Chess.NUM_ROWS - 1;
+		int col = 0;
+		for(; index < length && fen.charAt(index) != ' '; index++) {
+			char letter = fen.charAt(index);
+			if(letter == '/') {
+				if(col != Chess.NUM_COLS || row == 0) throw invalid(fen, "wrong number of spots in row " + row);
+				row--;
+				col = 0;
+			} else if(letter >= '1' && letter <= '0' + Chess.NUM_COLS) {
+				col += letter - '0';
+				if(col > Chess.NUM_COLS) throw invalid(fen, "too many spots in row " + row);
+			} else {
+				int pieceCode = pieceCode(letter);
+				if(pieceCode == Position.NO_PIECE) throw invalid(fen, "unknown piece " + letter);
+				if(col >= Chess.NUM_COLS) throw invalid(fen, "too many spots in row " + row);
+				position.setSquare(Bitboards.square(row, col++), pieceCode, false);
+			}
+		}
+		if(row != 0 || col != Chess.NUM_COLS) throw invalid(fen, "wrong number of rows or spots");
+
+		// Positions are kept to what a game can reach, which the engine's fixed-size buffers rely on
+		for(int color = Position.WHITE; color <= Position.BLACK; color++) {
+			if(Long.bitCount(position.getPieces(color, Position.KING)) != 1)
+				throw invalid(fen, "each side needs exactly one king");
+			if(Long.bitCount(position.getPieces(color)) > Position.MAX_PIECES_PER_SIDE)
+				throw invalid(fen, "more than " + Position.MAX_PIECES_PER_SIDE + " pieces for one side");
+		}
+
+		// Side to move, White if missing
+		index = skipSpaces(fen, index);
+		if(index < length) {
+			char side = fen.charAt(index++);
+			if(side == 'b') position.setSideToMove(Position.BLACK);
+			else if(side != 'w') throw invalid(fen, "unknown side to move " + side);
+		}
+
+		for(int field = 0; field < SKIPPED_FIELDS; field++) {
+			index = skipField(fen, skipSpaces(fen, index));
+		}
+
+		// FlipFlopper parities
+		index = skipSpaces(fen, index);
+		if(index < length && fen.charAt(index) != '-') {
+			for(; index < length && fen.charAt(index) != ' '; index += 2) {
+				int square = Bitboards.parseSquare(fen, index);
+				if(square < 0 || Position.typeOf(position.getPieceAt(square)) != Position.FLIPFLOPPER)
+					throw invalid(fen, "no FlipFlopper to give odd parity");
+				position.setSquare(square, position.getPieceAt(square), true);
+			}
+		}
+	}
+
+	/**
+	 * @returns A started game in the position given in FEN, with no move history
+	 * @throws Chess.ChessError If the string is not valid FEN
+	 */
+	public static Game createGame(CharSequence fen) {
+		Position position = new Position();
+		parse(fen, position);
+
+		Game game = new Game();
+		Chess.PieceType[] types = Chess.PieceType.values();
+		Chess.Color[] colors = Chess.Color.values();
+		for(long pieces = position.getOccupied(); pieces != 0; pieces &= pieces - 1) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			int pieceCode = position.getPieceAt(square);
+
+			Piece piece = game.addPiece(types[Position.typeOf(pieceCode)], colors[Position.colorOf(pieceCode)],
+				game.getBoard().getSpot(square));
+			if(position.hasOddParity(square)) ((FlipFlopper) piece).setMoveParity(1);
+		}
+
+		game.resumeGame(colors[position.getSideToMove()]);
+		return game;
+	}
+
+	/**
+	 * @returns The given position in FEN, with a parity field only if a FlipFlopper has odd parity
+	 */
+	public static String toFen(Position position) {
+		StringBuilder fen = new StringBuilder(96);
+
+		for(int row = Chess.NUM_ROWS - 1; row >= 0; row--) {
+			int empty = 0;
+			for(int col = 0; col < Chess.NUM_COLS; col++) {
+				int pieceCode = position.getPieceAt(Bitboards.square(row, col));
+				if(pieceCode == Position.NO_PIECE) {
+					empty++;
+					continue;
+				}
+				if(empty > 0) fen.append(empty);
+				empty = 0;
+				fen.append(letter(pieceCode));
+			}
+			if(empty > 0) fen.append(empty);
+			if(row > 0) fen.append('/');
+		}
+
+		fen.append(position.getSideToMove() == Position.WHITE ? " w" : " b");
+		fen.append(" - - 0 1");
+
+		long flipFloppers = position.getPieces(Position.WHITE, Position.FLIPFLOPPER) |
+			position.getPieces(Position.BLACK, Position.FLIPFLOPPER);
+		boolean anyOdd = false;
+		for(; flipFloppers != 0; flipFloppers &= flipFloppers - 1) {
+			int square = Long.numberOfTrailingZeros(flipFloppers);
+			if(!position.hasOddParity(square)) continue;
+			if(!anyOdd) fen.append(' ');
+			anyOdd = true;
+			fen.append(Bitboards.squareName(square));
+		}
+
+		return fen.toString();
+	}
+
+	public static String toFen(Game game) {
+		return toFen(game.getBoard().getPosition());
+	}
+
+	/**
+	 * @returns The code of the piece a letter stands for, or Position.NO_PIECE if none
+	 */
+	public static int pieceCode(char letter) {
+		int type = PIECE_LETTERS.indexOf(Character.toUpperCase(letter));
+		if(type < 0) return Position.NO_PIECE;
+		return Position.pieceCode(Character.isUpperCase(letter) ? Position.WHITE : Position.BLACK, type);
+	}
+
+	/**
+	 * @returns The letter standing for a piece, uppercase for White and lowercase for Black
+	 */
+	public static char letter(int pieceCode) {
+		char letter = PIECE_LETTERS.charAt(Position.typeOf(pieceCode));
+		return (Position.colorOf(pieceCode) == Position.WHITE) ? letter : Character.toLowerCase(letter);
+	}
+
+	private static int skipSpaces(CharSequence fen, int index) {
+		while(index < fen.length() && fen.charAt(index) == ' ') index++;
+		return index;
+	}
+
+	private static int skipField(CharSequence fen, int index) {
+		while(index < fen.length() && fen.charAt(index) != ' ') index++;
+		return index;
+	}
+
+	private static Chess.ChessError invalid(CharSequence fen, String reason) {
+		return new Chess.ChessError("Invalid FEN \"" + fen + "\": " + reason);
+	}
+
+}
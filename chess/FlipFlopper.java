@@ -1,8 +1,5 @@
 package chess;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * FlipFlopper: A class represent a FlipFlopper type chess piece
  * A FlipFlopper moves like a Queen on its first move, like a King on its second,
@@ -18,50 +15,30 @@ public class FlipFlopper extends Piece {
 		moveParity = 0;
 	}
 
-	public List<Board.Spot> getPossibleMoves(boolean regardlessOfKing) {
-		List<Board.Spot> possibleMoves = new ArrayList<Board.Spot>();
-
-		int[] verticalDirs = { 1, 0, -1 };
-		int[] horizontalDirs = { 1, 0, -1 };
-
-		// Explore outwards in all 8 possible directions
-		for(int verticalDir : verticalDirs) {
-			for(int horizontalDir : horizontalDirs) {
-
-				// Direction vector needs at least one non-zero to be valid
-				if(horizontalDir == 0 && verticalDir == 0) continue;
-
-				int distance = 1;
-				Board.Spot targetSpot = getSpotWithOffset(distance * verticalDir, distance * horizontalDir);
-				
-				while(isAvailableSpot(targetSpot, regardlessOfKing)) {
-
-					possibleMoves.add(targetSpot);
-					
-					if(moveParity == 1) {
-						// If this is a King-like move, only explore 1 spot out
-						break;
-					} else if(targetSpot.isOccupied()) {
-						// If this spot is occupied, we can't move to a spot past it
-						break;
-					} else {
-						distance++;
-						targetSpot = getSpotWithOffset(distance * verticalDir, distance * horizontalDir);
-					}
-
-				} // END WHILE
-
+	@Override
+	public Chess.PieceType getPieceType() {
+		return Chess.PieceType.FLIPFLOPPER;
+	}
 
-			} // END FOR
-		} // END FOR
+	@Override
+	public int getMoveParity() {
+		return moveParity;
+	}
 
-		return possibleMoves;
+	/**
+	 * Sets the parity of the number of moves this piece has taken,
+	 * for setting up a position part-way through a game
+	 */
+	public void setMoveParity(int moveParity) {
+		this.moveParity = moveParity;
+		spot.setPiece(this);
 	}
 	
 	@Override
 	public void moveTo(Board.Spot spot) {
-		super.moveTo(spot);
+		// Flip parity first, so the new spot records the piece's next movement mode
 		moveParity = (moveParity + 1) % 2;
+		super.moveTo(spot);
 	}
 
 	@Override
@@ -2,11 +2,9 @@ package chess;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.Stack;
 import java.util.HashMap;
-import java.util.concurrent.Callable;
-import java.lang.reflect.Constructor;
 
 /**
  * Game: A class representing a chess game
@@ -17,6 +15,9 @@ import java.lang.reflect.Constructor;
  * To take a turn, call movePieceTo()
  * After each turn, call startNewTurn()
  * onGameEnded() is called when the game is over
+ *
+ * Searches and replays can instead call makeMove() and unmakeMove(),
+ * which pass the turn without notifying listeners or ending the game
  */
 
 public class Game {
@@ -32,19 +33,8 @@ public class Game {
 		void onCheck(Chess.Color inCheckColor); // Called when inCheckColor becomes in check
 	}
 	
-	private class Move {
-		public Chess.Color playerColor;
-		public Board.Spot srcSpot, dstSpot;
-		public Piece movedPiece, capturedPiece;
-		public Move(Chess.Color playerColor, Board.Spot srcSpot, Board.Spot dstSpot,
-				Piece movedPiece, Piece capturedPiece) {
-			this.playerColor = playerColor;
-			this.srcSpot = srcSpot;
-			this.dstSpot = dstSpot;
-			this.movedPiece = movedPiece;
-			this.capturedPiece = capturedPiece;
-		}
-	}
+	// The initial capacity of the undo stack, which grows if a game outlasts it
+	private static final int INITIAL_HISTORY_CAPACITY = 1024;
 
 	// Keeps track of which side's turn it is
 	private Chess.Color turnColor;
@@ -61,7 +51,13 @@ public class Game {
 	// Whether or not the game has started
 	private boolean inPlay;
 	
-	private Stack<Move> moveStack;
+	// The undo stack: each move taken, and the piece it captured, if any
+	private int[] moveHistory;
+	private Piece[] capturedHistory;
+	private int historySize;
+
+	// The status of the most recently asked about position, see getStatus()
+	private final GameStatus status = new GameStatus();
 
 	/**
 	 * Initializes a new chess game
@@ -71,7 +67,8 @@ public class Game {
 		this.pieces = new HashMap<Chess.Color, List<Piece>>();
 		this.pieces.put(Chess.Color.WHITE, new ArrayList<Piece>());
 		this.pieces.put(Chess.Color.BLACK, new ArrayList<Piece>());
-		this.moveStack = new Stack<Move>();
+		this.moveHistory = new int[INITIAL_HISTORY_CAPACITY];
+		this.capturedHistory = new Piece[INITIAL_HISTORY_CAPACITY];
 	}
 
 	/**
@@ -100,15 +97,46 @@ public class Game {
 		return inPlay;
 	}
 
+	/**
+	 * @returns The number of moves made since the game started that can still be taken back
+	 */
+	public int getMoveCount() {
+		return historySize;
+	}
+
+	/**
+	 * @returns The move made at the given index of the move history, the first move being 0
+	 */
+	public int getMove(int index) {
+		if(index < 0 || index >= historySize) throw new IndexOutOfBoundsException("No move " + index);
+		return moveHistory[index];
+	}
+
+	/**
+	 * @returns The Zobrist hash of the current position, which covers the pieces,
+	 * FlipFlopper move parities and the side to move
+	 */
+	public long getKey() {
+		return board.getPosition().getKey();
+	}
+
+	/**
+	 * Passes the turn, keeping the position's side to move in sync
+	 */
+	private void setTurnColor(Chess.Color turnColor) {
+		this.turnColor = turnColor;
+		if(turnColor != null) board.getPosition().setSideToMove(turnColor.ordinal());
+	}
+
 	public void startGame() {
 		// Initialize both sides' pieces
 		for(Chess.RowConfiguration rowConfiguration : Chess.getRowConfigurations()) {
 			int row = rowConfiguration.row;
-			Class[] pieceClasses = rowConfiguration.pieces;
+			Chess.PieceType[] pieceTypes = rowConfiguration.pieces;
 			Chess.Color sideColor = rowConfiguration.sideColor;
 
 			for(int col = 0; col < Chess.NUM_COLS; col++) {
-				addPiece(pieceClasses[col], sideColor, board.getSpot(row, col));
+				addPiece(pieceTypes[col], sideColor, board.getSpot(row, col));
 			}
 		}
 		
@@ -121,6 +149,37 @@ public class Game {
 		}
 	}
 	
+	/**
+	 * Starts a game whose pieces have already been added, such as one read from FEN,
+	 * with the given side to move
+	 */
+	public void resumeGame(Chess.Color turnColor) {
+		this.inPlay = true;
+		setTurnColor(turnColor);
+
+		if(eventListener != null) {
+			eventListener.onGameStarted();
+		}
+	}
+
+	/**
+	 * @returns A new game with the same pieces, parities and turn as this one,
+	 * but no move history or event listener, so it can be searched independently
+	 */
+	public Game copy() {
+		Game copy = new Game();
+		for(Chess.Color color : Chess.Color.values()) {
+			for(Piece piece : pieces.get(color)) {
+				Piece pieceCopy = copy.addPiece(piece.getPieceType(), color, copy.board.getSpot(piece.getSpot().getSquare()));
+				if(piece instanceof FlipFlopper)
+					((FlipFlopper) pieceCopy).setMoveParity(piece.getMoveParity());
+			}
+		}
+		copy.setTurnColor(turnColor);
+		copy.inPlay = inPlay;
+		return copy;
+	}
+
 	/**
 	 * Restarts a game that has already been started
 	 */
@@ -138,22 +197,24 @@ public class Game {
 		this.board = new Board();
 		pieces.get(Chess.Color.WHITE).clear();
 		pieces.get(Chess.Color.BLACK).clear();
-		moveStack.clear();
+		Arrays.fill(capturedHistory, 0, historySize, null);
+		historySize = 0;
 	}
 
 	public void startNewTurn() {
 		if(turnColor == null) {
 			// First turn, white side moves first
-			turnColor = Chess.Color.WHITE;
+			setTurnColor(Chess.Color.WHITE);
 		} else {
-			turnColor = Chess.opponentColor(turnColor);
+			setTurnColor(Chess.opponentColor(turnColor));
 		}
 		
-		if(isInCheckmate(turnColor)) {
+		GameStatus status = getStatus(turnColor);
+		if(status.isCheckmate()) {
 			endGame(Chess.opponentColor(turnColor));
-		} else if(isInCheck(turnColor) && eventListener != null) {
+		} else if(status.isInCheck() && eventListener != null) {
 			eventListener.onCheck(turnColor);
-		} else if(isInStalemate(turnColor)) {
+		} else if(status.isStalemate()) {
 			endGame(null);
 		}
 	}
@@ -172,33 +233,40 @@ public class Game {
 	 * @returns Whether the side of the given color is in checkmate
 	 */
 	public boolean isInCheckmate(Chess.Color color) {
-		if(!isInCheck(color)) return false;
-
-		// Check if any piece has a move that doesn't leave the king in check
-		for(Piece piece : pieces.get(color)) {
-			if(!piece.getPossibleMoves().isEmpty()) return false;
-		}
-
-		return true;
-
+		return getStatus(color).isCheckmate();
 	}
 
 	/**
 	 * @returns Whether the side of the given color is in stalemate
 	 */
 	public boolean isInStalemate(Chess.Color color) {
-		if(isInCheck(color)) return false;
+		return getStatus(color).isStalemate();
+	}
 
-		// Check if only kings left
-		if(pieces.get(Chess.Color.BLACK).size() == 1 &&
-			pieces.get(Chess.Color.WHITE).size() == 1) return true;
+	/**
+	 * @returns The check status and legal moves of the given side in the current position
+	 * The status is kept until the position changes, so asking again costs nothing,
+	 * but it is overwritten by asking about another position or side.
+	 */
+	public GameStatus getStatus(Chess.Color color) {
+		Position position = board.getPosition();
+		if(!status.isComputedFor(position.getKey(), color.ordinal()))
+			status.compute(position, color.ordinal());
+		return status;
+	}
 
-		// Check if any piece has a move
-		for(Piece piece : pieces.get(color)) {
-			if(!piece.getPossibleMoves().isEmpty()) return false;
-		}
+	/**
+	 * @returns Whether the side of the given color has a move that doesn't leave its king in check
+	 */
+	public boolean hasLegalMoves(Chess.Color color) {
+		return board.getPosition().hasLegalMoves(color.ordinal());
+	}
 
-		return true;
+	/**
+	 * Appends every legal move of the given color to the list
+	 */
+	public void generateLegalMoves(Chess.Color color, MoveList moves) {
+		board.getPosition().generateLegalMoves(color.ordinal(), moves);
 	}
 
 	/**
@@ -213,14 +281,7 @@ public class Game {
 			(piece.getColor() == turnColor)))
 				throw new Chess.ChessError("Attempt to move piece " + piece.toString() + " to " + spot.toString() + " was invalid");
 
-		Piece capturedPiece = spot.getPiece();
-		if(capturedPiece != null)
-			removePieceFromPlay(capturedPiece);
-
-		Board.Spot oldSpot = piece.getSpot();
-		piece.moveTo(spot);
-		
-		moveStack.push(new Move(turnColor, oldSpot, spot, piece, capturedPiece));
+		Piece capturedPiece = doMove(piece, Move.create(piece.getSpot().getSquare(), spot.getSquare()));
 		
 		if(eventListener != null) {
 			eventListener.onMoveTaken(capturedPiece);
@@ -228,38 +289,108 @@ public class Game {
 
 		return capturedPiece;
 	}
-	
+
+	/**
+	 * Makes the given move and passes the turn to the opponent,
+	 * without notifying the event listener or checking whether the game is over
+	 * @param move The move to make, as encoded by Move.create()
+	 */
+	public void makeMove(int move) {
+		Piece piece = board.getSpot(Move.getFrom(move)).getPiece();
+		doMove(piece, move);
+		setTurnColor(Chess.opponentColor(piece.getColor()));
+	}
+
+	/**
+	 * Takes back the last move made, returning the turn to the side that made it
+	 */
+	public void unmakeMove() {
+		if(historySize > 0) undoMove();
+	}
+
+	/**
+	 * Passes the turn to the opponent without moving, for searches that try the
+	 * effect of giving up a move. Nothing is added to the move history, so it must be
+	 * taken back with unmakeNullMove() before any earlier move is.
+	 */
+	public void makeNullMove() {
+		setTurnColor(Chess.opponentColor(turnColor));
+	}
+
+	/**
+	 * Takes back a null move, returning the turn to the side that passed
+	 */
+	public void unmakeNullMove() {
+		setTurnColor(Chess.opponentColor(turnColor));
+	}
+
 	/**
 	 * Resets the game to before the last move was made by
 	 * playerColor, if possible
 	 * @param playerColor The color of the player who made the move to undo
 	 */
 	public void undoLastMoveBy(Chess.Color playerColor) {
-		if(moveStack.isEmpty()) return;
+		if(historySize == 0) return;
 		
-		Chess.Color lastMoveColor = moveStack.peek().playerColor;
+		int lastMove = moveHistory[historySize - 1];
+		Chess.Color lastMoveColor = board.getSpot(Move.getTo(lastMove)).getPiece().getColor();
 		
 		if(lastMoveColor == playerColor) {
 			
-			undoMove(moveStack.pop());
+			undoMove();
 			
-		} else if(moveStack.size() >= 2) {
+		} else if(historySize >= 2) {
 			
 			// If last move was not player color, need to undo 2 moves
-			undoMove(moveStack.pop());
-			undoMove(moveStack.pop());
+			undoMove();
+			undoMove();
 		}
 	}
+
+	/**
+	 * Moves a piece, capturing any piece in its way, and records the move on the undo stack
+	 * @returns The piece captured by the move, or null if the destination was unoccupied
+	 */
+	private Piece doMove(Piece piece, int move) {
+		Board.Spot dstSpot = board.getSpot(Move.getTo(move));
+
+		Piece capturedPiece = dstSpot.getPiece();
+		if(capturedPiece != null)
+			removePieceFromPlay(capturedPiece);
+
+		piece.moveTo(dstSpot);
+
+		if(historySize == moveHistory.length) {
+			moveHistory = Arrays.copyOf(moveHistory, 2 * historySize);
+			capturedHistory = Arrays.copyOf(capturedHistory, 2 * historySize);
+		}
+		moveHistory[historySize] = move;
+		capturedHistory[historySize] = capturedPiece;
+		historySize++;
+
+		return capturedPiece;
+	}
 	
 	/**
-	 * Resets the game state to undo the given move
-	 * @param move The move to undo
+	 * Resets the game state to undo the last move on the undo stack,
+	 * returning its captured piece to play
 	 */
-	private void undoMove(Move move) {
-		move.movedPiece.moveTo(move.srcSpot);
-		if(move.capturedPiece != null)
-			addPiece(move.capturedPiece.getClass(), move.capturedPiece.getColor(), move.dstSpot);
-		this.turnColor = move.playerColor;
+	private void undoMove() {
+		historySize--;
+		int move = moveHistory[historySize];
+		Piece capturedPiece = capturedHistory[historySize];
+		capturedHistory[historySize] = null;
+
+		Board.Spot dstSpot = board.getSpot(Move.getTo(move));
+		Piece movedPiece = dstSpot.getPiece();
+		movedPiece.moveTo(board.getSpot(Move.getFrom(move)));
+
+		if(capturedPiece != null) {
+			capturedPiece.returnToPlay(dstSpot);
+			pieces.get(capturedPiece.getColor()).add(capturedPiece);
+		}
+
+		setTurnColor(movedPiece.getColor());
 	}
 
 	/**
@@ -269,7 +400,8 @@ public class Game {
 	public boolean isAvailableSpotForPiece(Piece piece, int row, int col, boolean regardlessOfKing) {
 		if(!board.isValidSpot(row, col)) return false;
 
-		if(board.isOccupied(row, col) && board.getPieceAt(row, col).getColor() == piece.getColor())
+		int occupant = board.getPosition().getPieceAt(Bitboards.square(row, col));
+		if(occupant != Position.NO_PIECE && Position.colorOf(occupant) == piece.getColor().ordinal())
 			return false;
 
 		if(!regardlessOfKing && moveWouldPutKingInCheck(piece, board.getSpot(row, col))) return false;
@@ -284,9 +416,15 @@ public class Game {
 	 * should take into account the consequences for the opponent's king
 	 */
 	public List<Piece> getPiecesThreatening(Piece piece, boolean regardlessOfKing) {
+		Position position = board.getPosition();
+		int square = piece.getSpot().getSquare();
+		int opponentColor = Chess.opponentColor(piece.getColor()).ordinal();
+
 		List<Piece> threateningPieces = new ArrayList<Piece>();
-		for(Piece opponent : pieces.get(Chess.opponentColor(piece.getColor()))) {
-			if(opponent.getPossibleMoves(regardlessOfKing).contains(piece.getSpot()))
+		long attackers = position.getAttackers(square, opponentColor);
+		for(; attackers != 0; attackers &= attackers - 1) {
+			Piece opponent = board.getSpot(Long.numberOfTrailingZeros(attackers)).getPiece();
+			if(regardlessOfKing || !moveWouldPutKingInCheck(opponent, piece.getSpot()))
 				threateningPieces.add(opponent);
 		}
 		return threateningPieces;
@@ -296,15 +434,7 @@ public class Game {
 	 * @returns Whether or not the side of the given color is in check
 	 */
 	public boolean isInCheck(Chess.Color sideColor) {
-		King king = getKing(sideColor);
-		List<Piece> opponentPieces = pieces.get(Chess.opponentColor(sideColor));
-		for(Piece opponentPiece : opponentPieces) {
-			for(Board.Spot spot : opponentPiece.getPossibleMovesRegardlessOfKing()) {
-				// Check if opponent piece can move to the king's spot
-				if(king.getSpot().equals(spot)) return true;
-			}
-		}
-		return false;
+		return board.getPosition().isInCheck(sideColor.ordinal());
 	}
 
 	/**
@@ -312,55 +442,17 @@ public class Game {
 	 * were it to move to the given spot
 	 */
 	public boolean moveWouldPutKingInCheck(Piece piece, Board.Spot spot) {
-		Callable<Boolean> inCheckCondition = new Callable<Boolean>() {
-			@Override
-			public Boolean call() {
-				return isInCheck(piece.getColor());
-			}
-		};
-
-		return resultIfPieceMovedToSpot(piece, spot, inCheckCondition);
+		return board.getPosition().moveWouldLeaveKingInCheck(piece.getCode(),
+				piece.getSpot().getSquare(), spot.getSquare());
 	}
 
-	/**
-	 * @returns Whether or not the given condition would be true
-	 * if the given piece were to be moved to the given spot
-	 */
-	private boolean resultIfPieceMovedToSpot(Piece piece, Board.Spot spot, Callable<Boolean> condition) {
-		// Save current board configuration
-		Piece pieceInNewSpot = spot.getPiece();
-		Board.Spot oldSpot = piece.getSpot();
-
-		if(pieceInNewSpot != null) pieces.get(pieceInNewSpot.getColor()).remove(pieceInNewSpot);
-		piece.moveTo(spot);
-
-		Boolean result;
-		try {
-			result = condition.call();
-		} catch(Exception e) {
-			System.err.println("Exception checking condition: " + e.getMessage());
-			result = false;
-		}
-
-		// Restore old board configuration
-		piece.moveTo(oldSpot);
-		if(pieceInNewSpot != null) {
-			pieces.get(pieceInNewSpot.getColor()).add(pieceInNewSpot);
-			spot.setPiece(pieceInNewSpot);
-		}
-
-		return result;
-	} 
-
 	/**
 	 * @returns The king of the given color
 	 */
 	public King getKing(Chess.Color color) {
-		for(Piece piece : pieces.get(color)) {
-			if(piece instanceof King)
-				return (King) piece;
-		}
-		return null;
+		int square = board.getPosition().getKingSquare(color.ordinal());
+		if(square < 0) return null;
+		return (King) board.getSpot(square).getPiece();
 	}
 
 	/**
@@ -369,16 +461,20 @@ public class Game {
 	 * @param sideColor The color of the piece to add
 	 * @param spot The location to add the piece at
 	 */
-	public Piece addPiece(Class pieceClass, Chess.Color sideColor, Board.Spot spot) {
-		try {
-			Constructor pieceConstructor = pieceClass.getDeclaredConstructor(Game.class, Chess.Color.class, Board.Spot.class);
-			Piece piece = (Piece) pieceConstructor.newInstance(this, sideColor, spot);
-			pieces.get(sideColor).add(piece);
-			return piece;
-		} catch(Exception e) {
-			System.err.println("Exception instantiating piece: " + e.getMessage());
-			return null;
-		}
+	public Piece addPiece(Class<? extends Piece> pieceClass, Chess.Color sideColor, Board.Spot spot) {
+		return addPiece(Chess.PieceType.of(pieceClass), sideColor, spot);
+	}
+
+	/**
+	 * Adds a piece to the board
+	 * @param type The type of the piece to add
+	 * @param sideColor The color of the piece to add
+	 * @param spot The location to add the piece at
+	 */
+	public Piece addPiece(Chess.PieceType type, Chess.Color sideColor, Board.Spot spot) {
+		Piece piece = type.create(this, sideColor, spot);
+		pieces.get(sideColor).add(piece);
+		return piece;
 	}
 
 	/**
@@ -0,0 +1,88 @@
+package chess;
+
+/**
+ * GameStatus: A class describing where a side stands in a position:
+ * whether it is in check, its legal moves, and whether the game is over
+ *
+ * The legal moves are generated once, and check, checkmate and stalemate are all
+ * read off them. A status remembers the key of the position it was computed for,
+ * so Game can keep the status of its current position and compute it again only
+ * once the position changes.
+ */
+public class GameStatus {
+
+	private final MoveList legalMoves = new MoveList();
+
+	// The position and side this status was computed for, valid once computed is set
+	private boolean computed;
+	private long key;
+	private int color;
+
+	private boolean inCheck;
+	private boolean onlyKingsLeft;
+
+	/**
+	 * Computes the status of the given side, replacing whatever this status held
+	 * @param color The color index of the side, see Position.WHITE
+	 */
+	public void compute(Position position, int color) {
+		this.computed = true;
+		this.key = position.getKey();
+		this.color = color;
+
+		legalMoves.clear();
+		position.generateLegalMoves(color, legalMoves);
+		inCheck = position.isInCheck(color);
+		onlyKingsLeft = position.getOccupied() == (position.getPieces(Position.WHITE, Position.KING) |
+			position.getPieces(Position.BLACK, Position.KING));
+	}
+
+	/**
+	 * @returns Whether this status was computed for the given side in a position with the given key
+	 */
+	public boolean isComputedFor(long key, int color) {
+		return computed && this.key == key && this.color == color;
+	}
+
+	/**
+	 * Forgets the position this status was computed for
+	 */
+	public void clear() {
+		computed = false;
+		legalMoves.clear();
+	}
+
+	public boolean isInCheck() {
+		return inCheck;
+	}
+
+	public boolean isCheckmate() {
+		return inCheck && legalMoves.isEmpty();
+	}
+
+	/**
+	 * @returns Whether the side has no legal move but is not in check, or only kings are left
+	 */
+	public boolean isStalemate() {
+		return !inCheck && (onlyKingsLeft || legalMoves.isEmpty());
+	}
+
+	public boolean isGameOver() {
+		return isCheckmate() || isStalemate();
+	}
+
+	/**
+	 * @returns The legal moves of the side, which belong to this status and must not be changed
+	 */
+	public MoveList getLegalMoves() {
+		return legalMoves;
+	}
+
+	/**
+	 * @returns Whether the side has a legal move between the given squares
+	 */
+	public boolean hasLegalMove(int from, int to) {
+		return legalMoves.contains(from, to);
+	}
+
+}
@@ -0,0 +1,109 @@
+package chess;
+
+/**
+ * Move: A class containing utilities for moves encoded as ints
+ *
+ * Bits 0-5 hold the square the piece moves from, bits 6-11 the square it
+ * moves to, bits 12-15 the code of the moved piece and bits 16-19 the code
+ * of the captured piece. The remaining bits hold flags, see CAPTURE and DOUBLE_PUSH.
+ */
+public class Move {
+
+	/**
+	 * A value that is never a valid move, for marking empty slots
+	 */
+	public static final int NONE = 0;
+
+	/**
+	 * Flag set on moves that capture a piece
+	 */
+	public static final int CAPTURE = 1 << 20;
+
+	/**
+	 * Flag set on pawn moves that advance two spots
+	 */
+	public static final int DOUBLE_PUSH = 1 << 21;
+
+	private static final int SQUARE_MASK = 0x3F;
+	private static final int PIECE_MASK = 0xF;
+	private static final int TO_SHIFT = 6;
+	private static final int MOVED_SHIFT = 12;
+	private static final int CAPTURED_SHIFT = 16;
+
+	/**
+	 * @returns The move of a piece between the given squares,
+	 * with no piece or flag information
+	 */
+	public static int create(int from, int to) {
+		return from | (to << TO_SHIFT);
+	}
+
+	/**
+	 * @returns The move of the given piece between the given squares
+	 * @param capturedPiece The code of the piece on the destination square,
+	 * or Position.NO_PIECE if it is empty
+	 */
+	public static int create(int from, int to, int movedPiece, int capturedPiece) {
+		int move = create(from, to) | (movedPiece << MOVED_SHIFT);
+
+		if(capturedPiece != Position.NO_PIECE)
+			move |= CAPTURE | (capturedPiece << CAPTURED_SHIFT);
+
+		if(Position.typeOf(movedPiece) == Position.PAWN && Math.abs(to - from) == 2 * Chess.NUM_COLS)
+			move |= DOUBLE_PUSH;
+
+		return move;
+	}
+
+	public static int getFrom(int move) {
+		return move & SQUARE_MASK;
+	}
+
+	public static int getTo(int move) {
+		return (move >>> TO_SHIFT) & SQUARE_MASK;
+	}
+
+	public static int getMovedPiece(int move) {
+		return (move >>> MOVED_SHIFT) & PIECE_MASK;
+	}
+
+	/**
+	 * @returns The code of the captured piece, or Position.NO_PIECE if the move is not a capture
+	 */
+	public static int getCapturedPiece(int move) {
+		if(!isCapture(move)) return Position.NO_PIECE;
+		return (move >>> CAPTURED_SHIFT) & PIECE_MASK;
+	}
+
+	public static boolean isCapture(int move) {
+		return (move & CAPTURE) != 0;
+	}
+
+	public static boolean isDoublePush(int move) {
+		return (move & DOUBLE_PUSH) != 0;
+	}
+
+	/**
+	 * @returns Whether two moves go between the same squares, ignoring piece and flag information
+	 */
+	public static boolean sameSquares(int move, int other) {
+		return (move & (SQUARE_MASK | (SQUARE_MASK << TO_SHIFT))) ==
+			(other & (SQUARE_MASK | (SQUARE_MASK << TO_SHIFT)));
+	}
+
+	/**
+	 * @returns The move in long algebraic notation, the names of the squares it goes
+	 * between, e.g. "e2e4", as used by the UCI protocol
+	 */
+	public static String toLongAlgebraic(int move) {
+		return Bitboards.squareName(getFrom(move)) + Bitboards.squareName(getTo(move));
+	}
+
+	public static String toString(int move) {
+		int from = getFrom(move);
+		int to = getTo(move);
+		return "(" + Bitboards.row(from) + ", " + Bitboards.col(from) + ") to (" +
+			Bitboards.row(to) + ", " + Bitboards.col(to) + ")";
+	}
+
+}
@@ -0,0 +1,69 @@
+package chess;
+
+/**
+ * MoveList: A reusable buffer of moves encoded as ints
+ *
+ * Move generators append to a MoveList instead of allocating a new list,
+ * so callers can keep one MoveList per search depth and clear it between uses
+ */
+public class MoveList {
+
+	/**
+	 * More moves than any side can have: a king and at most Position.MAX_PIECES_PER_SIDE - 1
+	 * other pieces, none with more moves than a Queen's 27
+	 * Pawns never promote, so games stay within that, and Fen rejects positions with more pieces.
+	 */
+	public static final int MAX_MOVES = 8 + (Position.MAX_PIECES_PER_SIDE - 1) * 27;
+
+	private final int[] moves = new int[MAX_MOVES];
+
+	private int size;
+
+	public void add(int move) {
+		moves[size++] = move;
+	}
+
+	public int get(int index) {
+		return moves[index];
+	}
+
+	/**
+	 * Replaces the move at the given index
+	 */
+	public void set(int index, int move) {
+		moves[index] = move;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * @returns Whether a move between the given squares is in the list
+	 */
+	public boolean contains(int from, int to) {
+		int target = Move.create(from, to);
+		for(int i = 0; i < size; i++) {
+			if(Move.sameSquares(moves[i], target)) return true;
+		}
+		return false;
+	}
+
+	public String toString() {
+		String out = "[";
+		for(int i = 0; i < size; i++) {
+			if(i > 0) out += ", ";
+			out += Move.toString(moves[i]);
+		}
+		return out + "]";
+	}
+
+}
@@ -0,0 +1,285 @@
+package chess;
+
+/**
+ * Movement: A class describing the squares a type of piece attacks, compiled
+ * into a table per color and square when it is created
+ *
+ * A movement is built from leaps, which land a fixed offset away, rides, which
+ * slide along a row, column or diagonal up to the first piece in the way, and
+ * jumps, which slide along a line over any pieces in the way, as a MegaRook does.
+ * Movements combine with plus(). Offsets and directions are { rows, columns } as
+ * seen by White, rows counting up the board, and are mirrored for Black.
+ *
+ * Leaps and jumps don't depend on the occupied squares, so they compile into a
+ * single table. Rides are looked up in the magic tables for Rooks and Bishops and
+ * masked down to their own directions, so any combination of directions costs no
+ * more than a Queen.
+ */
+public class Movement {
+
+	public static final int[][] ORTHOGONAL_DIRECTIONS = new int[][]{
+		new int[]{ 1, 0 }, new int[]{ -1, 0 }, new int[]{ 0, 1 }, new int[]{ 0, -1 }
+	};
+
+	public static final int[][] DIAGONAL_DIRECTIONS = new int[][]{
+		new int[]{ 1, 1 }, new int[]{ 1, -1 }, new int[]{ -1, 1 }, new int[]{ -1, -1 }
+	};
+
+	public static final int[][] ALL_DIRECTIONS = new int[][]{
+		new int[]{ 1, 0 }, new int[]{ -1, 0 }, new int[]{ 0, 1 }, new int[]{ 0, -1 },
+		new int[]{ 1, 1 }, new int[]{ 1, -1 }, new int[]{ -1, 1 }, new int[]{ -1, -1 }
+	};
+
+	public static final int[][] KNIGHT_OFFSETS = new int[][]{
+		new int[]{ 1, 2 }, new int[]{ 2, 1 }, new int[]{ 2, -1 }, new int[]{ 1, -2 },
+		new int[]{ -1, -2 }, new int[]{ -2, -1 }, new int[]{ -2, 1 }, new int[]{ -1, 2 }
+	};
+
+	private static final int[][] NONE = new int[0][];
+
+	private final int[][] leaps;
+	private final int[][] rides;
+	private final int[][] jumps;
+
+	// The squares reached by leaps and jumps, indexed by color and then square
+	private final long[][] fixedAttacks = new long[2][Bitboards.NUM_SQUARES];
+
+	// Every square along the rows and columns, and along the diagonals, ridden on an empty board,
+	// indexed by color and then square
+	private final long[][] orthogonalRays = new long[2][Bitboards.NUM_SQUARES];
+	private final long[][] diagonalRays = new long[2][Bitboards.NUM_SQUARES];
+
+	private final boolean ridesOrthogonally;
+	private final boolean ridesDiagonally;
+
+	/*
+	 * The common shapes of movement, whose attacks are looked up without masking or
+	 * combining tables they don't need, and GENERAL for all others
+	 */
+	private static final int FIXED = 0;
+	private static final int ROOK = 1;
+	private static final int BISHOP = 2;
+	private static final int QUEEN = 3;
+	private static final int GENERAL = 4;
+
+	private final int shape;
+
+	/**
+	 * @param leaps The offsets of the squares leapt to
+	 * @param rides The directions slid in up to the first piece in the way
+	 * @param jumps The directions slid in over any pieces in the way
+	 * @throws Chess.ChessError If a ride doesn't step along a row, column or diagonal
+	 */
+	public Movement(int[][] leaps, int[][] rides, int[][] jumps) {
+		this.leaps = leaps;
+		this.rides = rides;
+		this.jumps = jumps;
+
+		for(int[] direction : rides) {
+			if(Math.abs(direction[0]) > 1 || Math.abs(direction[1]) > 1 || (direction[0] == 0 && direction[1] == 0))
+				throw new Chess.ChessError("Rides must step along a row, column or diagonal");
+		}
+
+		boolean orthogonal = false;
+		boolean diagonal = false;
+		boolean likeRook = true;
+		boolean likeBishop = true;
+		for(int color = Position.WHITE; color <= Position.BLACK; color++) {
+			int[][] colorLeaps = forColor(leaps, color);
+			int[][] colorRides = forColor(rides, color);
+			int[][] colorJumps = forColor(jumps, color);
+			for(int square = 0; square < Bitboards.NUM_SQUARES; square++) {
+				fixedAttacks[color][square] = leap(square, colorLeaps) | slide(square, 0L, colorJumps);
+
+				long rays = slide(square, 0L, colorRides);
+				long rookRays = slide(square, 0L, ORTHOGONAL_DIRECTIONS);
+				long bishopRays = slide(square, 0L, DIAGONAL_DIRECTIONS);
+				orthogonalRays[color][square] = rays & rookRays;
+				diagonalRays[color][square] = rays & bishopRays;
+
+				orthogonal |= (rays & rookRays) != 0;
+				diagonal |= (rays & bishopRays) != 0;
+				likeRook &= (rays & rookRays) == rookRays;
+				likeBishop &= (rays & bishopRays) == bishopRays;
+			}
+		}
+		this.ridesOrthogonally = orthogonal;
+		this.ridesDiagonally = diagonal;
+
+		boolean fixed = leaps.length > 0 || jumps.length > 0;
+		if(!orthogonal && !diagonal) shape = FIXED;
+		else if(fixed || (orthogonal && !likeRook) || (diagonal && !likeBishop)) shape = GENERAL;
+		else if(!diagonal) shape = ROOK;
+		else if(!orthogonal) shape = BISHOP;
+		else shape = QUEEN;
+	}
+
+	/**
+	 * @returns A movement that leaps by the given offsets
+	 */
+	public static Movement leaper(int[]... offsets) {
+		return new Movement(offsets, NONE, NONE);
+	}
+
+	/**
+	 * @returns A movement that rides in the given directions up to the first piece in the way
+	 */
+	public static Movement rider(int[]... directions) {
+		return new Movement(NONE, directions, NONE);
+	}
+
+	/**
+	 * @returns A movement that slides in the given directions over any pieces in the way
+	 */
+	public static Movement jumper(int[]... directions) {
+		return new Movement(NONE, NONE, directions);
+	}
+
+	/**
+	 * @returns A movement that can move either this way or the other
+	 */
+	public Movement plus(Movement other) {
+		return new Movement(concat(leaps, other.leaps), concat(rides, other.rides), concat(jumps, other.jumps));
+	}
+
+	/**
+	 * @returns The movement that attacks from a square wherever this one attacks that square from
+	 * Looking outwards from a square with it finds the pieces moving this way that attack the square.
+	 */
+	public Movement reversed() {
+		return new Movement(negate(leaps), negate(rides), negate(jumps));
+	}
+
+	/**
+	 * @returns The squares attacked by a piece of the given color moving this way
+	 * @param occupied The bitboard of all occupied squares, which block rides
+	 */
+	public long attacks(int color, int square, long occupied) {
+		switch(shape) {
+			case FIXED:
+				return fixedAttacks[color][square];
+			case ROOK:
+				return Attacks.rook(square, occupied);
+			case BISHOP:
+				return Attacks.bishop(square, occupied);
+			case QUEEN:
+				return Attacks.queen(square, occupied);
+		}
+
+		long attacks = fixedAttacks[color][square];
+		if(ridesOrthogonally) attacks |= Attacks.rook(square, occupied) & orthogonalRays[color][square];
+		if(ridesDiagonally) attacks |= Attacks.bishop(square, occupied) & diagonalRays[color][square];
+		return attacks;
+	}
+
+	/**
+	 * @returns The squares reached by leaps and jumps, which don't depend on the occupied squares,
+	 * indexed by square
+	 */
+	public long[] getFixedAttacks(int color) {
+		return fixedAttacks[color];
+	}
+
+	/**
+	 * @returns The squares along the rows and columns ridden from each square on an empty board,
+	 * indexed by square
+	 */
+	public long[] getOrthogonalRays(int color) {
+		return orthogonalRays[color];
+	}
+
+	/**
+	 * @returns The squares along the diagonals ridden from each square on an empty board,
+	 * indexed by square
+	 */
+	public long[] getDiagonalRays(int color) {
+		return diagonalRays[color];
+	}
+
+	public boolean hasFixedAttacks() {
+		return leaps.length > 0 || jumps.length > 0;
+	}
+
+	public boolean ridesOrthogonally() {
+		return ridesOrthogonally;
+	}
+
+	public boolean ridesDiagonally() {
+		return ridesDiagonally;
+	}
+
+	/**
+	 * @returns The offsets or directions as seen by the given color
+	 */
+	private static int[][] forColor(int[][] offsets, int color) {
+		if(color == Position.WHITE) return offsets;
+
+		int[][] mirrored = new int[offsets.length][];
+		for(int i = 0; i < offsets.length; i++) {
+			mirrored[i] = new int[]{ -offsets[i][0], offsets[i][1] };
+		}
+		return mirrored;
+	}
+
+	private static int[][] negate(int[][] offsets) {
+		int[][] negated = new int[offsets.length][];
+		for(int i = 0; i < offsets.length; i++) {
+			negated[i] = new int[]{ -offsets[i][0], -offsets[i][1] };
+		}
+		return negated;
+	}
+
+	private static int[][] concat(int[][] first, int[][] second) {
+		int[][] both = new int[first.length + second.length][];
+		System.arraycopy(first, 0, both, 0, first.length);
+		System.arraycopy(second, 0, both, first.length, second.length);
+		return both;
+	}
+
+	/**
+	 * @returns The squares that lie the given offsets away from the square
+	 */
+	static long leap(int square, int[][] offsets) {
+		long attacks = 0L;
+		int row = Bitboards.row(square);
+		int col = Bitboards.col(square);
+		for(int[] offset : offsets) {
+			int targetRow = row + offset[0];
+			int targetCol = col + offset[1];
+			if(isOnBoard(targetRow, targetCol))
+				attacks |= Bitboards.bit(Bitboards.square(targetRow, targetCol));
+		}
+		return attacks;
+	}
+
+	/**
+	 * @returns The squares reachable by sliding outwards in the given directions,
+	 * up to and including the first occupied square in each direction
+	 */
+	static long slide(int square, long occupied, int[][] directions) {
+		long attacks = 0L;
+		int row = Bitboards.row(square);
+		int col = Bitboards.col(square);
+		for(int[] direction : directions) {
+			int targetRow = row + direction[0];
+			int targetCol = col + direction[1];
+
+			while(isOnBoard(targetRow, targetCol)) {
+				long target = Bitboards.bit(Bitboards.square(targetRow, targetCol));
+				attacks |= target;
+
+				// If this spot is occupied, we can't move to a spot past it
+				if((occupied & target) != 0) break;
+
+				targetRow += direction[0];
+				targetCol += direction[1];
+			} // END WHILE
+		} // END FOR
+		return attacks;
+	}
+
+	static boolean isOnBoard(int row, int col) {
+		return (0 <= row && row < Chess.NUM_ROWS) && (0 <= col && col < Chess.NUM_COLS);
+	}
+
+}
@@ -1,5 +1,6 @@
 package chess;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -48,6 +49,15 @@ public abstract class Piece {
 		this.inPlay = false;
 	}
 
+	/**
+	 * Return this piece to play at the given spot, when its capture is undone
+	 */
+	public void returnToPlay(Board.Spot spot) {
+		this.spot = spot;
+		spot.setPiece(this);
+		this.inPlay = true;
+	}
+
 	public Chess.Color getColor() {
 		return this.color;
 	}
@@ -56,6 +66,21 @@ public abstract class Piece {
 		return this.spot;
 	}
 
+	/**
+	 * @returns The code identifying this piece's color and type in a Position
+	 */
+	public int getCode() {
+		return Position.pieceCode(color.ordinal(), getPieceType().ordinal());
+	}
+
+	/**
+	 * @returns The parity of the number of moves this piece has taken,
+	 * for pieces whose movement depends on it
+	 */
+	public int getMoveParity() {
+		return 0;
+	}
+
 	/**
 	 * @returns The spot that is the given offset away from this piece's current spot
 	 */
@@ -109,7 +134,50 @@ public abstract class Piece {
 	 * Returns a list of all spots this piece could currently move to
 	 * @param regardlessOfKing Whether or not to ignore if move puts king into check
 	 */
-	abstract List<Board.Spot> getPossibleMoves(boolean regardlessOfKing);
+	public List<Board.Spot> getPossibleMoves(boolean regardlessOfKing) {
+		Board board = game.getBoard();
+		Position position = board.getPosition();
+		int square = spot.getSquare();
+		int code = getCode();
+
+		long targets;
+		if(regardlessOfKing)
+			targets = position.getMoveTargets(code, square, getMoveParity() == 1);
+		else
+			targets = position.getLegalMoveTargets(code, square, getMoveParity() == 1);
+
+		List<Board.Spot> possibleMoves = new ArrayList<Board.Spot>();
+		for(; targets != 0; targets &= targets - 1) {
+			possibleMoves.add(board.getSpot(Long.numberOfTrailingZeros(targets)));
+		}
+
+		return possibleMoves;
+	}
+
+	/**
+	 * Appends every move this piece could currently make to the list,
+	 * excluding those that would put the king into check
+	 */
+	public void getPossibleMoves(MoveList moves) {
+		Position position = game.getBoard().getPosition();
+		int square = spot.getSquare();
+		int code = getCode();
+		position.addMoves(code, square, position.getLegalMoveTargets(code, square, getMoveParity() == 1), moves);
+	}
+
+	/**
+	 * @returns Whether this piece could currently move to the given spot,
+	 * without putting the king into check
+	 */
+	public boolean canMoveTo(Board.Spot target) {
+		long targets = game.getBoard().getPosition().getLegalMoveTargets(getCode(), spot.getSquare(), getMoveParity() == 1);
+		return Bitboards.contains(targets, target.getSquare());
+	}
+
+	/**
+	 * @returns The type of this piece, which determines how it moves
+	 */
+	public abstract Chess.PieceType getPieceType();
 
 	/**
 	 * A string representing the type of this piece
@@ -0,0 +1,202 @@
+package chess;
+
+/**
+ * PieceSquareTables: A class holding the value of each piece on each square,
+ * for the middlegame and the endgame
+ *
+ * Each value combines the material worth of a piece with a bonus or penalty
+ * for where it stands. White's values are positive and Black's negative, so
+ * a position's score is the sum of the values of its pieces. The game phase
+ * runs from MAX_PHASE, with all the pieces on the board, down to 0 when only
+ * kings and pawns are left, and is used to blend the two scores together.
+ */
+public class PieceSquareTables {
+
+	/**
+	 * The phase of a position with at least the starting pieces of a standard game
+	 */
+	public static final int MAX_PHASE = 24;
+
+	/**
+	 * The material worth of each piece type, indexed by Position type index
+	 * A MegaRook gains in the endgame, when its unblockable lines meet fewer defenders.
+	 */
+	public static final int[] MIDGAME_VALUES = new int[]{ 100, 320, 330, 500, 900, 0, 650, 600 };
+	public static final int[] ENDGAME_VALUES = new int[]{ 100, 300, 330, 520, 900, 0, 700, 600 };
+
+	/**
+	 * How much each piece type adds to the game phase
+	 */
+	public static final int[] PHASE_WEIGHTS = new int[]{ 0, 1, 1, 2, 4, 0, 3, 3 };
+
+	/*
+	 * Tables of bonuses for White, drawn as White sees the board: the first
+	 * line is row 7 and the last is row 0. Pawns never promote in this game,
+	 * so a pawn on the last row is stuck rather than rewarded.
+	 */
+	private static final int[] PAWN_MIDGAME = new int[]{
+		-20,-20,-20,-20,-20,-20,-20,-20,
+		 20, 20, 20, 20, 20, 20, 20, 20,
+		 10, 10, 20, 30, 30, 20, 10, 10,
+		  5,  5, 10, 25, 25, 10,  5,  5,
+		  0,  0,  0, 20, 20,  0,  0,  0,
+		  5, -5,-10,  0,  0,-10, -5,  5,
+		  5, 10, 10,-20,-20, 10, 10,  5,
+		  0,  0,  0,  0,  0,  0,  0,  0
+	};
+
+	private static final int[] PAWN_ENDGAME = new int[]{
+		-20,-20,-20,-20,-20,-20,-20,-20,
+		 20, 20, 20, 20, 20, 20, 20, 20,
+		 15, 15, 15, 15, 15, 15, 15, 15,
+		 10, 10, 10, 10, 10, 10, 10, 10,
+		  5,  5,  5,  5,  5,  5,  5,  5,
+		  0,  0,  0,  0,  0,  0,  0,  0,
+		  0,  0,  0,  0,  0,  0,  0,  0,
+		  0,  0,  0,  0,  0,  0,  0,  0
+	};
+
+	private static final int[] KNIGHT_TABLE = new int[]{
+		-50,-40,-30,-30,-30,-30,-40,-50,
+		-40,-20,  0,  0,  0,  0,-20,-40,
+		-30,  0, 10, 15, 15, 10,  0,-30,
+		-30,  5, 15, 20, 20, 15,  5,-30,
+		-30,  0, 15, 20, 20, 15,  0,-30,
+		-30,  5, 10, 15, 15, 10,  5,-30,
+		-40,-20,  0,  5,  5,  0,-20,-40,
+		-50,-40,-30,-30,-30,-30,-40,-50
+	};
+
+	private static final int[] BISHOP_TABLE = new int[]{
+		-20,-10,-10,-10,-10,-10,-10,-20,
+		-10,  0,  0,  0,  0,  0,  0,-10,
+		-10,  0,  5, 10, 10,  5,  0,-10,
+		-10,  5,  5, 10, 10,  5,  5,-10,
+		-10,  0, 10, 10, 10, 10,  0,-10,
+		-10, 10, 10, 10, 10, 10, 10,-10,
+		-10,  5,  0,  0,  0,  0,  5,-10,
+		-20,-10,-10,-10,-10,-10,-10,-20
+	};
+
+	private static final int[] ROOK_TABLE = new int[]{
+		  0,  0,  0,  0,  0,  0,  0,  0,
+		  5, 10, 10, 10, 10, 10, 10,  5,
+		 -5,  0,  0,  0,  0,  0,  0, -5,
+		 -5,  0,  0,  0,  0,  0,  0, -5,
+		 -5,  0,  0,  0,  0,  0,  0, -5,
+		 -5,  0,  0,  0,  0,  0,  0, -5,
+		 -5,  0,  0,  0,  0,  0,  0, -5,
+		  0,  0,  0,  5,  5,  0,  0,  0
+	};
+
+	private static final int[] QUEEN_TABLE = new int[]{
+		-20,-10,-10, -5, -5,-10,-10,-20,
+		-10,  0,  0,  0,  0,  0,  0,-10,
+		-10,  0,  5,  5,  5,  5,  0,-10,
+		 -5,  0,  5,  5,  5,  5,  0, -5,
+		  0,  0,  5,  5,  5,  5,  0, -5,
+		-10,  5,  5,  5,  5,  5,  0,-10,
+		-10,  0,  5,  0,  0,  0,  0,-10,
+		-20,-10,-10, -5, -5,-10,-10,-20
+	};
+
+	private static final int[] KING_MIDGAME = new int[]{
+		-30,-40,-40,-50,-50,-40,-40,-30,
+		-30,-40,-40,-50,-50,-40,-40,-30,
+		-30,-40,-40,-50,-50,-40,-40,-30,
+		-30,-40,-40,-50,-50,-40,-40,-30,
+		-20,-30,-30,-40,-40,-30,-30,-20,
+		-10,-20,-20,-20,-20,-20,-20,-10,
+		 20, 20,  0,  0,  0,  0, 20, 20,
+		 20, 30, 10,  0,  0, 10, 30, 20
+	};
+
+	private static final int[] KING_ENDGAME = new int[]{
+		-50,-40,-30,-20,-20,-30,-40,-50,
+		-30,-20,-10,  0,  0,-10,-20,-30,
+		-30,-10, 20, 30, 30, 20,-10,-30,
+		-30,-10, 30, 40, 40, 30,-10,-30,
+		-30,-10, 30, 40, 40, 30,-10,-30,
+		-30,-10, 20, 30, 30, 20,-10,-30,
+		-30,-30,  0,  0,  0,  0,-30,-30,
+		-50,-30,-30,-30,-30,-30,-30,-50
+	};
+
+	// A MegaRook attacks as many squares from anywhere, so only the row behind the enemy pawns matters
+	private static final int[] MEGAROOK_TABLE = new int[]{
+		  0,  0,  0,  0,  0,  0,  0,  0,
+		 15, 15, 15, 15, 15, 15, 15, 15,
+		  0,  0,  0,  0,  0,  0,  0,  0,
+		  0,  0,  0,  0,  0,  0,  0,  0,
+		  0,  0,  0,  0,  0,  0,  0,  0,
+		  0,  0,  0,  0,  0,  0,  0,  0,
+		  0,  0,  0,  0,  0,  0,  0,  0,
+		  0,  0,  0,  0,  0,  0,  0,  0
+	};
+
+	// A FlipFlopper moves like a queen and a king in turn, and both reach the most from the center
+	private static final int[] FLIPFLOPPER_TABLE = new int[]{
+		-20,-10,-10,-10,-10,-10,-10,-20,
+		-10,  0,  0,  0,  0,  0,  0,-10,
+		-10,  0, 10, 10, 10, 10,  0,-10,
+		-10,  0, 10, 20, 20, 10,  0,-10,
+		-10,  0, 10, 20, 20, 10,  0,-10,
+		-10,  0, 10, 10, 10, 10,  0,-10,
+		-10,  0,  0,  0,  0,  0,  0,-10,
+		-20,-10,-10,-10,-10,-10,-10,-20
+	};
+
+	private static final int[][] MIDGAME_TABLES = new int[][]{
+		PAWN_MIDGAME, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE, KING_MIDGAME, MEGAROOK_TABLE, FLIPFLOPPER_TABLE
+	};
+
+	private static final int[][] ENDGAME_TABLES = new int[][]{
+		PAWN_ENDGAME, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE, KING_ENDGAME, MEGAROOK_TABLE, FLIPFLOPPER_TABLE
+	};
+
+	// Signed values including material, indexed by piece code, then square
+	private static final int[][] MIDGAME = new int[2 * Position.NUM_PIECE_TYPES][Bitboards.NUM_SQUARES];
+	private static final int[][] ENDGAME = new int[2 * Position.NUM_PIECE_TYPES][Bitboards.NUM_SQUARES];
+
+	static {
+		for(int type = 0; type < Position.NUM_PIECE_TYPES; type++) {
+			for(int square = 0; square < Bitboards.NUM_SQUARES; square++) {
+				int row = Bitboards.row(square);
+				int col = Bitboards.col(square);
+
+				// Black's tables are White's, mirrored top to bottom
+				int whiteIndex = (Chess.NUM_ROWS - 1 - row) * Chess.NUM_COLS + col;
+				int blackIndex = row * Chess.NUM_COLS + col;
+
+				int white = Position.pieceCode(Position.WHITE, type);
+				int black = Position.pieceCode(Position.BLACK, type);
+				MIDGAME[white][square] = MIDGAME_VALUES[type] + MIDGAME_TABLES[type][whiteIndex];
+				MIDGAME[black][square] = -(MIDGAME_VALUES[type] + MIDGAME_TABLES[type][blackIndex]);
+				ENDGAME[white][square] = ENDGAME_VALUES[type] + ENDGAME_TABLES[type][whiteIndex];
+				ENDGAME[black][square] = -(ENDGAME_VALUES[type] + ENDGAME_TABLES[type][blackIndex]);
+			}
+		}
+	}
+
+	/**
+	 * @returns The middlegame value of a piece on a square, positive for White and negative for Black
+	 */
+	public static int midgame(int pieceCode, int square) {
+		return MIDGAME[pieceCode][square];
+	}
+
+	/**
+	 * @returns The endgame value of a piece on a square, positive for White and negative for Black
+	 */
+	public static int endgame(int pieceCode, int square) {
+		return ENDGAME[pieceCode][square];
+	}
+
+	/**
+	 * @returns How much a piece adds to the game phase
+	 */
+	public static int phase(int pieceCode) {
+		return PHASE_WEIGHTS[Position.typeOf(pieceCode)];
+	}
+
+}
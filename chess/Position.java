@@ -0,0 +1,627 @@
+package chess;
+
+/**
+ * Position: A class representing the placement of pieces on a board as bitboards
+ *
+ * A Position keeps one bitboard per piece type and color, along with the
+ * combined occupancy of each side. It is kept in sync with its Board's spots,
+ * and answers move and check queries with mask operations.
+ */
+public class Position {
+
+	/**
+	 * Color indices, matching the ordinals of Chess.Color
+	 */
+	public static final int WHITE = 0;
+	public static final int BLACK = 1;
+
+	/**
+	 * Piece type indices, matching the ordinals of Chess.PieceType
+	 */
+	public static final int PAWN = 0;
+	public static final int KNIGHT = 1;
+	public static final int BISHOP = 2;
+	public static final int ROOK = 3;
+	public static final int QUEEN = 4;
+	public static final int KING = 5;
+	public static final int MEGAROOK = 6;
+	public static final int FLIPFLOPPER = 7;
+
+	public static final int NUM_PIECE_TYPES = 8;
+
+	/**
+	 * The most pieces a side can have, a full back row and front row
+	 * Pawns never promote, so no game gets more, and Fen rejects positions with more.
+	 */
+	public static final int MAX_PIECES_PER_SIDE = 2 * Chess.NUM_COLS;
+
+	/**
+	 * The piece code of an empty square
+	 * Other piece codes combine a color and a type, see pieceCode()
+	 */
+	public static final int NO_PIECE = -1;
+
+	// The squares occupied by each piece code
+	private final long[] pieceBitboards = new long[2 * NUM_PIECE_TYPES];
+
+	// The squares occupied by each color
+	private final long[] colorBitboards = new long[2];
+
+	// The squares occupied by any piece
+	private long occupied;
+
+	// The squares holding FlipFloppers that have taken an odd number of moves
+	private long oddParityFlipFloppers;
+
+	// The piece code on each square
+	private final int[] squares = new int[Bitboards.NUM_SQUARES];
+
+	// The squares of each color's pieces in each group of Attacks.getGroups(), indexed by color and then group
+	private final long[][] groupBitboards = new long[][]{
+		new long[Attacks.getGroupCount(WHITE)], new long[Attacks.getGroupCount(BLACK)]
+	};
+
+	// The square of each color's king, or -1 if it has none
+	private final int[] kingSquares = new int[]{ -1, -1 };
+
+	// The side whose turn it is to move
+	private int sideToMove = WHITE;
+
+	// The Zobrist hash of the pieces, parities and side to move, see Zobrist
+	private long key;
+
+	// The sums of the pieces' middlegame and endgame values and phase weights, see PieceSquareTables
+	private int midgameScore;
+	private int endgameScore;
+	private int phase;
+
+	// Incremented whenever a square changes, to invalidate cached legality masks
+	private int version;
+
+	/*
+	 * Legality masks for each color, valid while legalityVersion matches version:
+	 * the pieces giving check, the pieces pinned to their king, and the
+	 * squares a non-king piece must move to in order to resolve a check
+	 */
+	private final int[] legalityVersion = new int[]{ -1, -1 };
+	private final long[] checkers = new long[2];
+	private final long[] pinned = new long[2];
+
+	// The squares each pinned piece may stay on: those between its king and its pinner,
+	// and the pinner's square, indexed by color and then square, valid for pinned squares only
+	private final long[][] pinRays = new long[2][Bitboards.NUM_SQUARES];
+	private final long[] checkMasks = new long[2];
+
+	/*
+	 * The squares each color attacks, valid while attackMapVersion matches version.
+	 * The opposing king is left out of the occupancy, so squares behind it on a
+	 * line of attack count as attacked, and its moves can be checked against the map.
+	 */
+	private final int[] attackMapVersion = new int[]{ -1, -1 };
+	private final long[] attackMaps = new long[2];
+
+	/**
+	 * Initializes an empty position
+	 */
+	public Position() {
+		for(int square = 0; square < Bitboards.NUM_SQUARES; square++) {
+			squares[square] = NO_PIECE;
+		}
+	}
+
+	/**
+	 * Empties every square and gives the move to White
+	 */
+	public void clear() {
+		for(long pieces = occupied; pieces != 0; pieces &= pieces - 1) {
+			setSquare(Long.numberOfTrailingZeros(pieces), NO_PIECE, false);
+		}
+		setSideToMove(WHITE);
+	}
+
+	/**
+	 * @returns The code identifying a piece of the given color and type
+	 */
+	public static int pieceCode(int color, int type) {
+		return color * NUM_PIECE_TYPES + type;
+	}
+
+	public static int colorOf(int pieceCode) {
+		return pieceCode / NUM_PIECE_TYPES;
+	}
+
+	public static int typeOf(int pieceCode) {
+		return pieceCode % NUM_PIECE_TYPES;
+	}
+
+	public static int opponent(int color) {
+		return 1 - color;
+	}
+
+	/**
+	 * Places a piece on a square, replacing whatever occupied it
+	 * @param pieceCode The code of the piece to place, or NO_PIECE to empty the square
+	 * @param oddParity Whether the piece is a FlipFlopper that has taken an odd number of moves
+	 */
+	public void setSquare(int square, int pieceCode, boolean oddParity) {
+		long bit = Bitboards.bit(square);
+
+		int oldCode = squares[square];
+		if(oldCode != NO_PIECE) {
+			removeFromGroups(oldCode, bit, (oddParityFlipFloppers & bit) != 0);
+			pieceBitboards[oldCode] &= ~bit;
+			colorBitboards[colorOf(oldCode)] &= ~bit;
+			occupied &= ~bit;
+			key ^= Zobrist.piece(oldCode, square);
+			midgameScore -= PieceSquareTables.midgame(oldCode, square);
+			endgameScore -= PieceSquareTables.endgame(oldCode, square);
+			phase -= PieceSquareTables.phase(oldCode);
+			if(typeOf(oldCode) == KING) kingSquares[colorOf(oldCode)] = -1;
+		}
+		if((oddParityFlipFloppers & bit) != 0) key ^= Zobrist.parity(square);
+
+		squares[square] = pieceCode;
+		if(pieceCode != NO_PIECE) {
+			addToGroups(pieceCode, bit, oddParity);
+			pieceBitboards[pieceCode] |= bit;
+			colorBitboards[colorOf(pieceCode)] |= bit;
+			occupied |= bit;
+			key ^= Zobrist.piece(pieceCode, square);
+			midgameScore += PieceSquareTables.midgame(pieceCode, square);
+			endgameScore += PieceSquareTables.endgame(pieceCode, square);
+			phase += PieceSquareTables.phase(pieceCode);
+			if(typeOf(pieceCode) == KING) kingSquares[colorOf(pieceCode)] = square;
+		}
+
+		if(oddParity) {
+			oddParityFlipFloppers |= bit;
+			key ^= Zobrist.parity(square);
+		} else {
+			oddParityFlipFloppers &= ~bit;
+		}
+
+		version++;
+	}
+
+	private void addToGroups(int pieceCode, long bit, boolean oddParity) {
+		long[] groups = groupBitboards[colorOf(pieceCode)];
+		int[] members = Attacks.getGroups(pieceCode, oddParity);
+		for(int i = 0; i < members.length; i++) {
+			groups[members[i]] |= bit;
+		}
+	}
+
+	private void removeFromGroups(int pieceCode, long bit, boolean oddParity) {
+		long[] groups = groupBitboards[colorOf(pieceCode)];
+		int[] members = Attacks.getGroups(pieceCode, oddParity);
+		for(int i = 0; i < members.length; i++) {
+			groups[members[i]] &= ~bit;
+		}
+	}
+
+	/**
+	 * Makes a move on this position alone and passes the turn, for replaying
+	 * moves without a Board, such as when reading recorded games
+	 * @param move The move to make, as encoded by Move.create()
+	 */
+	public void makeMove(int move) {
+		int from = Move.getFrom(move);
+		int movedPiece = squares[from];
+		boolean oddParity = typeOf(movedPiece) == FLIPFLOPPER && !hasOddParity(from);
+
+		setSquare(from, NO_PIECE, false);
+		setSquare(Move.getTo(move), movedPiece, oddParity);
+		setSideToMove(opponent(colorOf(movedPiece)));
+	}
+
+	/**
+	 * Takes back a move made with makeMove(), returning the turn to the side that made it
+	 * @param capturedOddParity Whether the captured piece was a FlipFlopper with odd
+	 * move parity, which the move itself doesn't record
+	 */
+	public void unmakeMove(int move, boolean capturedOddParity) {
+		int to = Move.getTo(move);
+		int movedPiece = squares[to];
+		boolean oddParity = typeOf(movedPiece) == FLIPFLOPPER && !hasOddParity(to);
+
+		setSquare(to, Move.getCapturedPiece(move), capturedOddParity);
+		setSquare(Move.getFrom(move), movedPiece, oddParity);
+		setSideToMove(colorOf(movedPiece));
+	}
+
+	public int getSideToMove() {
+		return sideToMove;
+	}
+
+	public void setSideToMove(int color) {
+		if(color != sideToMove) key ^= Zobrist.BLACK_TO_MOVE;
+		sideToMove = color;
+	}
+
+	/**
+	 * @returns The Zobrist hash identifying this position,
+	 * including FlipFlopper parities and the side to move
+	 */
+	public long getKey() {
+		return key;
+	}
+
+	/**
+	 * @returns The middlegame score of the pieces, from White's point of view
+	 */
+	public int getMidgameScore() {
+		return midgameScore;
+	}
+
+	/**
+	 * @returns The endgame score of the pieces, from White's point of view
+	 */
+	public int getEndgameScore() {
+		return endgameScore;
+	}
+
+	/**
+	 * @returns The game phase, from PieceSquareTables.MAX_PHASE with all pieces on the board down to 0
+	 */
+	public int getPhase() {
+		return Math.min(phase, PieceSquareTables.MAX_PHASE);
+	}
+
+	/**
+	 * @returns The code of the piece on the given square, or NO_PIECE if it is empty
+	 */
+	public int getPieceAt(int square) {
+		return squares[square];
+	}
+
+	public long getPieces(int color, int type) {
+		return pieceBitboards[pieceCode(color, type)];
+	}
+
+	public long getPieces(int color) {
+		return colorBitboards[color];
+	}
+
+	public long getOccupied() {
+		return occupied;
+	}
+
+	/**
+	 * @returns Whether the piece on the given square is a FlipFlopper with odd move parity
+	 */
+	public boolean hasOddParity(int square) {
+		return Bitboards.contains(oddParityFlipFloppers, square);
+	}
+
+	/**
+	 * @returns The square of the king of the given color, or -1 if it has none
+	 */
+	public int getKingSquare(int color) {
+		return kingSquares[color];
+	}
+
+	/**
+	 * @returns The squares a piece could move to from the given square,
+	 * including those that would put its king into check
+	 * @param pieceCode The code of the moving piece
+	 * @param oddParity The move parity of the piece, if it is a FlipFlopper
+	 */
+	public long getMoveTargets(int pieceCode, int square, boolean oddParity) {
+		int color = colorOf(pieceCode);
+		int type = typeOf(pieceCode);
+
+		if(type != PAWN)
+			return Attacks.of(type, color, square, occupied, oddParity) & ~colorBitboards[color];
+
+		// Pawns only move diagonally to capture
+		long targets = Attacks.pawn(color, square) & colorBitboards[opponent(color)];
+
+		// White-side pawns move up the board, Black-side pawns move down
+		int forward = (color == WHITE) ? Chess.NUM_COLS : -Chess.NUM_COLS;
+		int startRow = (color == WHITE) ? 1 : Chess.NUM_ROWS - 2;
+		int oneForward = square + forward;
+		if(0 <= oneForward && oneForward < Bitboards.NUM_SQUARES && !Bitboards.contains(occupied, oneForward)) {
+			targets |= Bitboards.bit(oneForward);
+
+			// Two spots forward, only if this is the first move
+			int twoForward = oneForward + forward;
+			if(Bitboards.row(square) == startRow && !Bitboards.contains(occupied, twoForward))
+				targets |= Bitboards.bit(twoForward);
+		}
+		return targets;
+	}
+
+	/**
+	 * @returns The squares a piece could move to from the given square,
+	 * excluding those that would put its king into check
+	 * @param pieceCode The code of the moving piece
+	 * @param oddParity The move parity of the piece, if it is a FlipFlopper
+	 */
+	public long getLegalMoveTargets(int pieceCode, int square, boolean oddParity) {
+		long targets = getMoveTargets(pieceCode, square, oddParity);
+
+		if(typeOf(pieceCode) != KING)
+			return targets & getLegalDestinations(colorOf(pieceCode), square);
+
+		int opponentColor = opponent(colorOf(pieceCode));
+		if(attackMapVersion[opponentColor] == version) return targets & ~attackMaps[opponentColor];
+
+		// Testing a few targets on their own is cheaper than building the attack map
+		long legalTargets = 0L;
+		for(; targets != 0; targets &= targets - 1) {
+			int target = Long.numberOfTrailingZeros(targets);
+			if(!moveWouldLeaveKingInCheck(pieceCode, square, target))
+				legalTargets |= Bitboards.bit(target);
+		}
+		return legalTargets;
+	}
+
+	/**
+	 * Appends every legal move of the given color to the list
+	 */
+	public void generateLegalMoves(int color, MoveList moves) {
+		generateLegalMoves(color, ~0L, moves);
+	}
+
+	/**
+	 * Appends every legal capture of the given color to the list
+	 */
+	public void generateLegalCaptures(int color, MoveList moves) {
+		generateLegalMoves(color, colorBitboards[opponent(color)], moves);
+	}
+
+	/**
+	 * Appends every legal move of the given color that doesn't capture to the list
+	 */
+	public void generateLegalQuiets(int color, MoveList moves) {
+		generateLegalMoves(color, ~occupied, moves);
+	}
+
+	/**
+	 * @returns Whether the move is legal for the side to move, with the moved and
+	 * captured pieces it records, such as a move remembered from another position
+	 */
+	public boolean isLegalMove(int move) {
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		int pieceCode = squares[from];
+
+		if(pieceCode == NO_PIECE || colorOf(pieceCode) != sideToMove) return false;
+		if(Move.getMovedPiece(move) != pieceCode || Move.getCapturedPiece(move) != squares[to]) return false;
+
+		return Bitboards.contains(getLegalMoveTargets(pieceCode, from, hasOddParity(from)), to);
+	}
+
+	/**
+	 * Appends the legal moves of the given color that end on one of the given squares to the list
+	 */
+	private void generateLegalMoves(int color, long allowedTargets, MoveList moves) {
+		for(int type = 0; type < NUM_PIECE_TYPES; type++) {
+			int code = pieceCode(color, type);
+			for(long pieces = pieceBitboards[code]; pieces != 0; pieces &= pieces - 1) {
+				int square = Long.numberOfTrailingZeros(pieces);
+				addMoves(code, square, getLegalMoveTargets(code, square, hasOddParity(square)) & allowedTargets, moves);
+			}
+		}
+	}
+
+	/**
+	 * Appends the moves of the given piece to each of the target squares to the list
+	 */
+	public void addMoves(int pieceCode, int from, long targets, MoveList moves) {
+		for(; targets != 0; targets &= targets - 1) {
+			int to = Long.numberOfTrailingZeros(targets);
+			moves.add(Move.create(from, to, pieceCode, squares[to]));
+		}
+	}
+
+	/**
+	 * @returns Whether the side of the given color has any legal move
+	 */
+	public boolean hasLegalMoves(int color) {
+		// Most often the king has a safe square, which needs nothing but the attack map
+		int kingSquare = kingSquares[color];
+		if(kingSquare >= 0) {
+			long kingTargets = Attacks.king(kingSquare) & ~colorBitboards[color];
+			if(kingTargets != 0 && (kingTargets & ~getAttackMap(opponent(color))) != 0) return true;
+		}
+
+		for(long pieces = colorBitboards[color]; pieces != 0; pieces &= pieces - 1) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			if(getLegalMoveTargets(squares[square], square, hasOddParity(square)) != 0) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @returns The squares holding pieces of the given color that attack the given square
+	 */
+	public long getAttackers(int square, int byColor) {
+		return getAttackers(square, byColor, occupied);
+	}
+
+	/**
+	 * @returns The squares holding pieces of the given color that attack the given square
+	 * @param occupied The squares to treat as occupied, which block sliding pieces
+	 */
+	public long getAttackers(int square, int byColor, long occupied) {
+		long[] groups = groupBitboards[byColor];
+		long[] table = Attacks.getGroupTable(byColor);
+		int index = square * groups.length;
+		int leaperEnd = Attacks.getLeaperGroupCount(byColor);
+		int orthogonalEnd = leaperEnd + Attacks.getOrthogonalGroupCount(byColor);
+
+		// Look outwards from the square with each group's reversed movement
+		long attackers = 0L;
+		int group = 0;
+		for(; group < leaperEnd; group++) {
+			attackers |= table[index + group] & groups[group];
+		}
+
+		// Riders are found along the lines a Rook or Bishop would attack, masked to their own directions
+		if(group < orthogonalEnd) {
+			long lines = Attacks.rook(square, occupied);
+			for(; group < orthogonalEnd; group++) {
+				attackers |= lines & table[index + group] & groups[group];
+			}
+		}
+		if(group < groups.length) {
+			long lines = Attacks.bishop(square, occupied);
+			for(; group < groups.length; group++) {
+				attackers |= lines & table[index + group] & groups[group];
+			}
+		}
+		return attackers;
+	}
+
+	/**
+	 * @returns Whether any piece of the given color attacks the given square
+	 */
+	public boolean isAttacked(int square, int byColor) {
+		return getAttackers(square, byColor) != 0;
+	}
+
+	/**
+	 * @returns Whether the king of the given color is in check
+	 */
+	public boolean isInCheck(int color) {
+		// A current attack map answers at once, otherwise the checkers are cheaper to find than the map
+		int opponentColor = opponent(color);
+		if(attackMapVersion[opponentColor] == version)
+			return kingSquares[color] >= 0 && Bitboards.contains(attackMaps[opponentColor], kingSquares[color]);
+		return getCheckers(color) != 0;
+	}
+
+	/**
+	 * @returns The squares attacked by the pieces of the given color, looking through the
+	 * opposing king, so that a king moving along a line of attack is still attacked
+	 */
+	public long getAttackMap(int color) {
+		if(attackMapVersion[color] == version) return attackMaps[color];
+		attackMapVersion[color] = version;
+
+		long occupancy = occupied & ~pieceBitboards[pieceCode(opponent(color), KING)];
+		long attacks = 0L;
+		for(int type = 0; type < NUM_PIECE_TYPES; type++) {
+			for(long pieces = pieceBitboards[pieceCode(color, type)]; pieces != 0; pieces &= pieces - 1) {
+				int square = Long.numberOfTrailingZeros(pieces);
+				attacks |= Attacks.of(type, color, square, occupancy, hasOddParity(square));
+			}
+		}
+		attackMaps[color] = attacks;
+		return attacks;
+	}
+
+	/**
+	 * @returns The squares of the pieces giving check to the king of the given color
+	 */
+	public long getCheckers(int color) {
+		updateLegality(color);
+		return checkers[color];
+	}
+
+	/**
+	 * @returns The pieces of the given color that are pinned to their king
+	 */
+	public long getPinned(int color) {
+		updateLegality(color);
+		return pinned[color];
+	}
+
+	/**
+	 * @returns Whether moving the given piece between the given squares
+	 * would leave the king of its color in check
+	 */
+	public boolean moveWouldLeaveKingInCheck(int pieceCode, int from, int to) {
+		int color = colorOf(pieceCode);
+
+		if(typeOf(pieceCode) == KING) {
+			// The attack map looks through the king, so it covers the lines it moves away on
+			if(attackMapVersion[opponent(color)] == version)
+				return Bitboards.contains(attackMaps[opponent(color)], to);
+
+			// The king no longer blocks attacks along the lines it moves away on
+			long occupiedAfterMove = (occupied & ~Bitboards.bit(from)) | Bitboards.bit(to);
+			long attackers = getAttackers(to, opponent(color), occupiedAfterMove) & ~Bitboards.bit(to);
+			return attackers != 0;
+		}
+
+		return !Bitboards.contains(getLegalDestinations(color, from), to);
+	}
+
+	/**
+	 * @returns The squares a non-king piece of the given color on the given square
+	 * may move to without leaving its king in check
+	 */
+	private long getLegalDestinations(int color, int square) {
+		updateLegality(color);
+
+		long destinations = checkMasks[color];
+		if(Bitboards.contains(pinned[color], square))
+			destinations &= pinRays[color][square];
+		return destinations;
+	}
+
+	/**
+	 * Recomputes the checkers, pinned pieces and check mask of the given color,
+	 * if the position has changed since they were last computed
+	 */
+	private void updateLegality(int color) {
+		if(legalityVersion[color] == version) return;
+		legalityVersion[color] = version;
+
+		int kingSquare = getKingSquare(color);
+		if(kingSquare < 0) {
+			checkers[color] = 0L;
+			pinned[color] = 0L;
+			checkMasks[color] = ~0L;
+			return;
+		}
+
+		int opponentColor = opponent(color);
+		long kingCheckers = getAttackers(kingSquare, opponentColor);
+
+		// Pieces that can be blocked, and so can also pin: riders, but not jumpers such as MegaRooks
+		long[] groups = groupBitboards[opponentColor];
+		long[] table = Attacks.getGroupTable(opponentColor);
+		int index = kingSquare * groups.length;
+		long sliders = 0L;
+		long snipers = 0L;
+		for(int group = Attacks.getLeaperGroupCount(opponentColor); group < groups.length; group++) {
+			sliders |= groups[group];
+			snipers |= table[index + group] & groups[group];
+		}
+
+		// Find sliders lined up with the king behind exactly one of this side's pieces
+		long pinnedPieces = 0L;
+		for(; snipers != 0; snipers &= snipers - 1) {
+			int pinner = Long.numberOfTrailingZeros(snipers);
+			long between = Attacks.between(kingSquare, pinner);
+			long blockers = between & occupied;
+			if(Long.bitCount(blockers) != 1 || (blockers & colorBitboards[color]) == 0) continue;
+
+			// The whole line would let a piece that jumps, like a MegaRook, leave past its pinner
+			pinnedPieces |= blockers;
+			pinRays[color][Long.numberOfTrailingZeros(blockers)] = between | Bitboards.bit(pinner);
+		}
+
+		// A single check is resolved by capturing the checker, or by blocking it if it slides.
+		// A MegaRook jumps blockers, so only capturing it resolves its check.
+		long checkMask;
+		if(kingCheckers == 0) {
+			checkMask = ~0L;
+		} else if(Long.bitCount(kingCheckers) == 1) {
+			checkMask = kingCheckers;
+			if((kingCheckers & sliders) != 0)
+				checkMask |= Attacks.between(kingSquare, Long.numberOfTrailingZeros(kingCheckers));
+		} else {
+			// Only the king can escape a double check
+			checkMask = 0L;
+		}
+
+		checkers[color] = kingCheckers;
+		pinned[color] = pinnedPieces;
+		checkMasks[color] = checkMask;
+	}
+
+}
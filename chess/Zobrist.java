@@ -0,0 +1,48 @@
+package chess;
+
+import java.util.Random;
+
+/**
+ * Zobrist: A class holding the random keys that are combined into a position's hash
+ *
+ * A position's key is the XOR of the keys of each piece on its square, of each
+ * odd-parity FlipFlopper's square, and of the side to move if it is Black.
+ * Keys are generated from a fixed seed, so hashes are stable across runs.
+ */
+public class Zobrist {
+
+	private static final long SEED = 0x5DEECE66DL;
+
+	// Keys indexed by piece code, then square
+	private static final long[][] PIECE_KEYS = new long[2 * Position.NUM_PIECE_TYPES][Bitboards.NUM_SQUARES];
+
+	// Keys for a FlipFlopper with odd move parity on each square
+	private static final long[] PARITY_KEYS = new long[Bitboards.NUM_SQUARES];
+
+	/**
+	 * The key toggled when it is Black's turn to move
+	 */
+	public static final long BLACK_TO_MOVE;
+
+	static {
+		Random random = new Random(SEED);
+		for(int code = 0; code < PIECE_KEYS.length; code++) {
+			for(int square = 0; square < Bitboards.NUM_SQUARES; square++) {
+				PIECE_KEYS[code][square] = random.nextLong();
+			}
+		}
+		for(int square = 0; square < Bitboards.NUM_SQUARES; square++) {
+			PARITY_KEYS[square] = random.nextLong();
+		}
+		BLACK_TO_MOVE = random.nextLong();
+	}
+
+	public static long piece(int pieceCode, int square) {
+		return PIECE_KEYS[pieceCode][square];
+	}
+
+	public static long parity(int square) {
+		return PARITY_KEYS[square];
+	}
+
+}
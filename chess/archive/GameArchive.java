@@ -0,0 +1,290 @@
+package chess.archive;
+
+import chess.*;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnReader;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GameArchive: A binary archive of games, mapped into memory so that any
+ * game can be read without reading the ones before it
+ *
+ * The archive starts with MAGIC and VERSION. Each game follows: a byte
+ * saying where it starts (STANDARD_START, CUSTOM_START, or FEN_START
+ * followed by the FEN), a byte for its result, a byte counting its tags,
+ * each tag's name and value, a short counting its moves and then one byte
+ * per move. A move's byte is its index among the legal moves of the
+ * position it is made in, sorted by the square they leave and then the
+ * square they go to, see moveIndex(). After the games
+ * comes the index, the offset of each game as a long, and then the offset
+ * of the index as a long, the number of games as an int, and MAGIC again.
+ * Strings are written as a short length followed by their UTF-8 bytes.
+ * All numbers are big-endian.
+ *
+ * Usage: java chess.archive.GameArchive <PGN file> <archive file>
+ * converts a PGN file to an archive, and compares their sizes and read speeds.
+ */
+public class GameArchive implements Closeable {
+
+	public static final int MAGIC = 0x43484741;
+	public static final int VERSION = 1;
+
+	/**
+	 * The ways a game can start
+	 */
+	public static final int STANDARD_START = 0;
+	public static final int CUSTOM_START = 1;
+	public static final int FEN_START = 2;
+
+	// The results, indexed by their codes
+	private static final String[] RESULTS = { PgnGame.UNKNOWN_RESULT, PgnGame.WHITE_WINS, PgnGame.BLACK_WINS, PgnGame.DRAW };
+
+	public static final int MAX_TAGS = 0xFF;
+	public static final int MAX_MOVES = 0xFFFF;
+	public static final int MAX_STRING_LENGTH = 0xFFFF;
+
+	// The bytes after the index: its offset, the number of games and MAGIC
+	private static final int TRAILER_SIZE = 16;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final int indexOffset;
+	private final int gameCount;
+
+	/**
+	 * Maps the archive in the given file into memory
+	 * @throws IOException If the file can't be read, is not an archive, or is over 2 GB
+	 */
+	public GameArchive(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.READ);
+		long size = channel.size();
+		if(size > Integer.MAX_VALUE) {
+			channel.close();
+			throw new IOException("Archive too large to map: " + path);
+		}
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+		if(size < 8 + TRAILER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt((int) size - 4) != MAGIC) {
+			channel.close();
+			throw new IOException("Not a game archive: " + path);
+		}
+		if(buffer.getInt(4) != VERSION) {
+			channel.close();
+			throw new IOException("Unsupported archive version " + buffer.getInt(4) + ": " + path);
+		}
+		indexOffset = (int) buffer.getLong((int) size - TRAILER_SIZE);
+		gameCount = buffer.getInt((int) size - 8);
+	}
+
+	public int getGameCount() {
+		return gameCount;
+	}
+
+	/**
+	 * @returns The game with the given index, the first game being 0
+	 */
+	public PgnGame read(int index) {
+		PgnGame game = new PgnGame();
+		read(index, game, new Position());
+		return game;
+	}
+
+	/**
+	 * Reads the game with the given index into the given one, replacing whatever it held
+	 * Reads nothing but the index entry and the game itself, and can be called from several
+	 * threads at once, as long as each passes its own game and position.
+	 * @param position A position to replay the moves on, which ends up in the game's final position
+	 * @throws Chess.ChessError If the archive holds a move that is not legal
+	 */
+	public void read(int index, PgnGame game, Position position) {
+		if(index < 0 || index >= gameCount) throw new IndexOutOfBoundsException("No game " + index);
+		int offset = (int) buffer.getLong(indexOffset + 8 * index);
+		game.clear();
+
+		int start = buffer.get(offset++);
+		String startingFen = Fen.STANDARD_START;
+		if(start == CUSTOM_START) {
+			startingFen = Fen.CUSTOM_START;
+		} else if(start == FEN_START) {
+			startingFen = getString(offset);
+			offset += 2 + (buffer.getShort(offset) & 0xFFFF);
+		}
+		if(start != STANDARD_START) game.setStartingFen(startingFen);
+		game.setResult(RESULTS[buffer.get(offset++)]);
+
+		int tagCount = buffer.get(offset++) & 0xFF;
+		for(int i = 0; i < tagCount; i++) {
+			String name = getString(offset);
+			offset += 2 + (buffer.getShort(offset) & 0xFFFF);
+			String value = getString(offset);
+			offset += 2 + (buffer.getShort(offset) & 0xFFFF);
+			game.setTag(name, value);
+		}
+
+		int moveCount = buffer.getShort(offset) & 0xFFFF;
+		offset += 2;
+		Fen.parse(startingFen, position);
+		for(int i = 0; i < moveCount; i++) {
+			int move = moveAt(position, buffer.get(offset + i) & 0xFF);
+			if(move == Move.NONE) throw new Chess.ChessError("Corrupt move in game " + index);
+			position.makeMove(move);
+			game.addMove(move);
+		}
+	}
+
+	/**
+	 * @returns The index of a legal move among all legal moves of the side to move, sorted
+	 * by the square they leave and then the square they go to, or -1 if it is not legal
+	 * Only the legal targets of the pieces on lower squares are counted, not generated.
+	 */
+	public static int moveIndex(Position position, int move) {
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		int index = 0;
+		for(long pieces = position.getPieces(position.getSideToMove()); pieces != 0; pieces &= pieces - 1) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			long targets = position.getLegalMoveTargets(position.getPieceAt(square), square, position.hasOddParity(square));
+			if(square < from) {
+				index += Long.bitCount(targets);
+				continue;
+			}
+
+			if(square > from || !Bitboards.contains(targets, to)) return -1;
+			return index + Long.bitCount(targets & (Bitboards.bit(to) - 1));
+		}
+		return -1;
+	}
+
+	/**
+	 * @returns The legal move at the given index, as counted by moveIndex(),
+	 * or Move.NONE if the side to move has no more legal moves than that
+	 */
+	public static int moveAt(Position position, int index) {
+		for(long pieces = position.getPieces(position.getSideToMove()); pieces != 0; pieces &= pieces - 1) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			int pieceCode = position.getPieceAt(square);
+			long targets = position.getLegalMoveTargets(pieceCode, square, position.hasOddParity(square));
+			int count = Long.bitCount(targets);
+			if(index >= count) {
+				index -= count;
+				continue;
+			}
+
+			for(; index > 0; index--) {
+				targets &= targets - 1;
+			}
+			int to = Long.numberOfTrailingZeros(targets);
+			return Move.create(square, to, pieceCode, position.getPieceAt(to));
+		}
+		return Move.NONE;
+	}
+
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * @returns The code a result is archived as
+	 */
+	static int resultCode(String result) {
+		for(int code = 0; code < RESULTS.length; code++) {
+			if(RESULTS[code].equals(result)) return code;
+		}
+		return 0;
+	}
+
+	/**
+	 * @returns Whether a tag is left out of the archive, because its value is recorded otherwise
+	 */
+	static boolean isImpliedTag(String name) {
+		return name.equals("Result") || name.equals("SetUp") || name.equals("FEN");
+	}
+
+	/**
+	 * @returns The string written at the given offset
+	 */
+	private String getString(int offset) {
+		int length = buffer.getShort(offset) & 0xFFFF;
+		byte[] bytes = new byte[length];
+		ByteBuffer view = buffer.duplicate();
+		view.position(offset + 2);
+		view.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public static void main(String[] args) throws IOException {
+		if(args.length < 2) {
+			System.err.println("Usage: java chess.archive.GameArchive <PGN file> <archive file>");
+			System.exit(1);
+		}
+		Path pgnPath = Paths.get(args[0]);
+		Path archivePath = Paths.get(args[1]);
+		Path gzipPath = Paths.get(args[1] + ".pgn.gz");
+
+		// Convert, and compress the PGN for comparison
+		PgnGame game = new PgnGame();
+		int skipped = 0;
+		try(PgnReader reader = PgnReader.open(pgnPath); GameArchiveWriter writer = GameArchiveWriter.open(archivePath)) {
+			while(true) {
+				// Games that can't be read or archived are left out
+				try {
+					if(!reader.next(game)) break;
+					writer.write(game);
+				} catch(Chess.ChessError e) {
+					skipped++;
+				}
+			} // END WHILE
+		}
+		try(OutputStream out = new GZIPOutputStream(new FileOutputStream(gzipPath.toFile()))) {
+			Files.copy(pgnPath, out);
+		}
+
+		long start = System.nanoTime();
+		int gzipGames = 0;
+		try(PgnReader reader = new PgnReader(Channels.newChannel(new GZIPInputStream(Files.newInputStream(gzipPath))))) {
+			while(true) {
+				try {
+					if(!reader.next(game)) break;
+				} catch(Chess.ChessError e) {
+					continue;
+				}
+				gzipGames++;
+			} // END WHILE
+		}
+		double gzipSeconds = (System.nanoTime() - start) / 1e9;
+
+		start = System.nanoTime();
+		int archiveGames;
+		try(GameArchive archive = new GameArchive(archivePath)) {
+			archiveGames = archive.getGameCount();
+			Position position = new Position();
+			for(int i = 0; i < archiveGames; i++) {
+				archive.read(i, game, position);
+			}
+		}
+		double archiveSeconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.println("Games: " + archiveGames);
+		System.out.println("Skipped: " + skipped);
+		System.out.println("PGN: " + Files.size(pgnPath) + " bytes");
+		System.out.println("Gzipped PGN: " + Files.size(gzipPath) + " bytes, " + (long) (gzipGames / gzipSeconds) + " games/sec");
+		System.out.println("Archive: " + Files.size(archivePath) + " bytes, " + (long) (archiveGames / archiveSeconds) + " games/sec");
+		Files.delete(gzipPath);
+	}
+
+}
@@ -0,0 +1,194 @@
+package chess.archive;
+
+import chess.*;
+import chess.pgn.PgnGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * GameArchiveWriter: Writes games to a binary archive, one after another,
+ * and the index of where each starts once the archive is closed
+ *
+ * See GameArchive for the format.
+ */
+public class GameArchiveWriter implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+	// The number of bytes written so far, including those still in the buffer
+	private long written;
+
+	// Where each game written so far starts
+	private long[] offsets = new long[INITIAL_INDEX_CAPACITY];
+	private int gameCount;
+
+	// The position of the game being written, and the index of each of its moves
+	private final Position position = new Position();
+	private byte[] moveIndices = new byte[0];
+
+	public GameArchiveWriter(WritableByteChannel channel) throws IOException {
+		this.channel = channel;
+		putInt(GameArchive.MAGIC);
+		putInt(GameArchive.VERSION);
+	}
+
+	/**
+	 * @returns A writer to the given file, replacing whatever it held
+	 */
+	public static GameArchiveWriter open(Path path) throws IOException {
+		return new GameArchiveWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+			StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+	}
+
+	public int getGameCount() {
+		return gameCount;
+	}
+
+	/**
+	 * Writes the moves made in the given game so far, with an unknown result
+	 */
+	public void write(Game game) throws IOException {
+		write(PgnGame.fromGame(game));
+	}
+
+	/**
+	 * Writes a game: where it starts, its result, its tags and one byte per move
+	 * The game is checked and its moves encoded before any of it is written, so a
+	 * game that can't be archived leaves the archive as it was.
+	 * @throws Chess.ChessError If the game's starting position is not valid FEN, one of
+	 * its moves is not legal, or it has too many tags, moves or legal moves to archive
+	 */
+	public void write(PgnGame game) throws IOException {
+		// The starting position and result are already recorded
+		String startingFen = game.getStartingFen();
+		int tagCount = 0;
+		for(Map.Entry<String, String> tag : game.getTags().entrySet()) {
+			if(GameArchive.isImpliedTag(tag.getKey())) continue;
+			checkString(tag.getKey());
+			checkString(tag.getValue());
+			tagCount++;
+		}
+		if(tagCount > GameArchive.MAX_TAGS) throw new Chess.ChessError("Too many tags to archive: " + tagCount);
+		checkString(startingFen);
+
+		int moveCount = game.getMoveCount();
+		if(moveCount > GameArchive.MAX_MOVES) throw new Chess.ChessError("Too many moves to archive: " + moveCount);
+		if(moveCount > moveIndices.length) moveIndices = new byte[Math.max(moveCount, 2 * moveIndices.length)];
+		Fen.parse(startingFen, position);
+		for(int i = 0; i < moveCount; i++) {
+			int move = game.getMove(i);
+			int index = GameArchive.moveIndex(position, move);
+			if(index < 0) throw new Chess.ChessError("Illegal move " + Move.toLongAlgebraic(move) + " in game " + gameCount);
+			if(index > 0xFF) throw new Chess.ChessError("Too many legal moves to archive move " + Move.toLongAlgebraic(move) + " in game " + gameCount);
+			moveIndices[i] = (byte) index;
+			position.makeMove(move);
+		}
+
+		if(gameCount == offsets.length) offsets = Arrays.copyOf(offsets, 2 * gameCount);
+		offsets[gameCount++] = written;
+
+		if(startingFen.equals(Fen.STANDARD_START)) {
+			put(GameArchive.STANDARD_START);
+		} else if(startingFen.equals(Fen.CUSTOM_START)) {
+			put(GameArchive.CUSTOM_START);
+		} else {
+			put(GameArchive.FEN_START);
+			putString(startingFen);
+		}
+		put(GameArchive.resultCode(game.getResult()));
+
+		put(tagCount);
+		for(Map.Entry<String, String> tag : game.getTags().entrySet()) {
+			if(GameArchive.isImpliedTag(tag.getKey())) continue;
+			putString(tag.getKey());
+			putString(tag.getValue());
+		}
+
+		putShort(moveCount);
+		for(int i = 0; i < moveCount; i++) {
+			put(moveIndices[i]);
+		}
+	}
+
+	/**
+	 * Writes the index and closes the channel
+	 */
+	public void close() throws IOException {
+		long indexOffset = written;
+		for(int i = 0; i < gameCount; i++) {
+			putLong(offsets[i]);
+		}
+		putLong(indexOffset);
+		putInt(gameCount);
+		putInt(GameArchive.MAGIC);
+
+		flush();
+		channel.close();
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private void ensureRemaining(int bytes) throws IOException {
+		if(buffer.remaining() < bytes) flush();
+	}
+
+	private void put(int value) throws IOException {
+		ensureRemaining(1);
+		buffer.put((byte) value);
+		written++;
+	}
+
+	private void putShort(int value) throws IOException {
+		ensureRemaining(2);
+		buffer.putShort((short) value);
+		written += 2;
+	}
+
+	private void putInt(int value) throws IOException {
+		ensureRemaining(4);
+		buffer.putInt(value);
+		written += 4;
+	}
+
+	private void putLong(long value) throws IOException {
+		ensureRemaining(8);
+		buffer.putLong(value);
+		written += 8;
+	}
+
+	private static void checkString(String string) {
+		if(string.getBytes(StandardCharsets.UTF_8).length > GameArchive.MAX_STRING_LENGTH)
+			throw new Chess.ChessError("String too long to archive: " + string);
+	}
+
+	/**
+	 * Writes a string as its length in bytes followed by its bytes in UTF-8
+	 */
+	private void putString(String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		putShort(bytes.length);
+		for(byte b : bytes) {
+			put(b);
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+package chess.benchmarks;
+
+import chess.*;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * BenchmarkPositions: The JMH state shared by all benchmarks, holding a game
+ * set up in one of a fixed set of representative positions
+ *
+ * Positions are given in FEN, where M is a MegaRook and F a FlipFlopper.
+ * White is to move in every position.
+ */
+@State(Scope.Thread)
+public class BenchmarkPositions {
+
+	public static final String OPENING = Fen.STANDARD_START;
+	public static final String MIDDLEGAME = "r1bq1rk1/pp2bppp/2np1n2/2p1p3/2B1P3/2NP1N2/PPP2PPP/R1BQ1RK1 w - - 0 1";
+	public static final String OPEN_MIDDLEGAME = "2rq1rk1/p4ppp/1p6/3p4/3N2b1/4P3/PP1Q1PPP/2R2RK1 w - - 0 1";
+	public static final String CUSTOM_MIDDLEGAME = "m1bqk1fr/ppp2ppp/2n2n2/3pp3/3PP3/2N2N2/PPP2PPP/M1BQK1FR w - - 0 1";
+	public static final String CUSTOM_ENDGAME = "4k3/5p2/8/2m5/3F4/8/5P2/M3K3 w - - 0 1";
+
+	@Param({ "opening", "middlegame", "openMiddlegame", "customMiddlegame", "customEndgame" })
+	public String positionName;
+
+	public Game game;
+
+	// A reusable buffer for benchmarks that generate moves
+	public MoveList moves = new MoveList();
+
+	// A reusable status for benchmarks that compute it without Game's cache
+	public GameStatus status = new GameStatus();
+
+	// A reusable position for benchmarks that read FEN
+	public Position position = new Position();
+
+	@Setup
+	public void setUp() {
+		game = createGame(getPosition(positionName));
+	}
+
+	public static String getPosition(String name) {
+		switch(name) {
+			case "opening":
+				return OPENING;
+			case "middlegame":
+				return MIDDLEGAME;
+			case "openMiddlegame":
+				return OPEN_MIDDLEGAME;
+			case "customMiddlegame":
+				return CUSTOM_MIDDLEGAME;
+			case "customEndgame":
+				return CUSTOM_ENDGAME;
+		}
+		throw new IllegalArgumentException("Unknown position " + name);
+	}
+
+	/**
+	 * @returns A game in the given position, with White to move
+	 */
+	public static Game createGame(String fen) {
+		return Fen.createGame(fen);
+	}
+
+}
@@ -0,0 +1,22 @@
+package chess.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * BoardBenchmarks: Benchmarks rendering the board as text
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardBenchmarks {
+
+	@Benchmark
+	public String boardToString(BenchmarkPositions state) {
+		return state.game.getBoard().toString();
+	}
+
+}
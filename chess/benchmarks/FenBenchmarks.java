@@ -0,0 +1,38 @@
+package chess.benchmarks;
+
+import chess.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * FenBenchmarks: Benchmarks reading and writing positions in FEN
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FenBenchmarks {
+
+	/**
+	 * Reads the state's position into a position that is reused between calls
+	 */
+	@Benchmark
+	public Position parse(BenchmarkPositions state) {
+		Fen.parse(BenchmarkPositions.getPosition(state.positionName), state.position);
+		return state.position;
+	}
+
+	@Benchmark
+	public Game createGame(BenchmarkPositions state) {
+		return Fen.createGame(BenchmarkPositions.getPosition(state.positionName));
+	}
+
+	@Benchmark
+	public String toFen(BenchmarkPositions state) {
+		return Fen.toFen(state.game);
+	}
+
+}
@@ -0,0 +1,76 @@
+package chess.benchmarks;
+
+import chess.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * GameBenchmarks: Benchmarks check detection, game-end detection
+ * and taking and undoing moves
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameBenchmarks {
+
+	/*
+	 * Game and Position keep check and game-end results until the position changes,
+	 * so these run on a position read afresh before each invocation
+	 */
+
+	@Benchmark
+	public boolean isInCheck(UncachedPositions state) {
+		return state.position.isInCheck(state.position.getSideToMove());
+	}
+
+	/**
+	 * Checkmate and stalemate are both read off the side's status, as Game does
+	 */
+	@Benchmark
+	public boolean isInCheckmate(UncachedPositions state) {
+		state.status.compute(state.position, state.position.getSideToMove());
+		return state.status.isCheckmate();
+	}
+
+	@Benchmark
+	public boolean isInStalemate(UncachedPositions state) {
+		state.status.compute(state.position, state.position.getSideToMove());
+		return state.status.isStalemate();
+	}
+
+	/**
+	 * Computes the status of the side to move afresh, as startNewTurn() does once per turn
+	 */
+	@Benchmark
+	public GameStatus computeStatus(BenchmarkPositions state) {
+		state.status.compute(state.game.getBoard().getPosition(), state.game.getTurnColor().ordinal());
+		return state.status;
+	}
+
+	/**
+	 * Takes and undoes every legal move of the side to move
+	 */
+	@Benchmark
+	public void movePieceToAndUndo(BenchmarkPositions state, Blackhole blackhole) {
+		Game game = state.game;
+		Chess.Color turnColor = game.getTurnColor();
+		Board board = game.getBoard();
+
+		MoveList moves = state.moves;
+		moves.clear();
+		game.generateLegalMoves(turnColor, moves);
+
+		for(int i = 0; i < moves.size(); i++) {
+			int move = moves.get(i);
+			Piece piece = board.getSpot(Move.getFrom(move)).getPiece();
+			blackhole.consume(game.movePieceTo(piece, board.getSpot(Move.getTo(move))));
+			game.undoLastMoveBy(turnColor);
+		}
+	}
+
+}
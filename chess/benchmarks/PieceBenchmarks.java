@@ -0,0 +1,36 @@
+package chess.benchmarks;
+
+import chess.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * PieceBenchmarks: Benchmarks move generation for every piece of the side to move
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PieceBenchmarks {
+
+	@Benchmark
+	public void getPossibleMoves(BenchmarkPositions state, Blackhole blackhole) {
+		Game game = state.game;
+		for(Piece piece : game.getPieces(game.getTurnColor())) {
+			blackhole.consume(piece.getPossibleMoves());
+		}
+	}
+
+	@Benchmark
+	public void getPossibleMovesRegardlessOfKing(BenchmarkPositions state, Blackhole blackhole) {
+		Game game = state.game;
+		for(Piece piece : game.getPieces(game.getTurnColor())) {
+			blackhole.consume(piece.getPossibleMovesRegardlessOfKing());
+		}
+	}
+
+}
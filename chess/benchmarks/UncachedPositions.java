@@ -0,0 +1,25 @@
+package chess.benchmarks;
+
+import chess.*;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Scope;
+
+/**
+ * UncachedPositions: The JMH state for benchmarks of work that Position and
+ * Game cache until the position changes, such as check and game-end detection
+ *
+ * The position is read from FEN again before every invocation, so each one
+ * starts without the legality masks, attack maps or status of the last.
+ */
+@State(Scope.Thread)
+public class UncachedPositions extends BenchmarkPositions {
+
+	@Setup(Level.Invocation)
+	public void resetPosition() {
+		Fen.parse(getPosition(positionName), position);
+	}
+
+}
@@ -0,0 +1,30 @@
+package chess.engine;
+
+import chess.PieceSquareTables;
+import chess.Position;
+
+/**
+ * Evaluator: A class that scores positions for the search, in centipawns
+ *
+ * A position keeps its middlegame and endgame piece-square sums up to date as
+ * pieces move, so evaluating only blends the two by the game phase.
+ */
+public class Evaluator {
+
+	/**
+	 * The material value of each piece type, indexed by Position type index,
+	 * for weighing up exchanges and ordering captures
+	 */
+	public static final int[] PIECE_VALUES = PieceSquareTables.MIDGAME_VALUES;
+
+	/**
+	 * @returns The score of the position from the point of view of the side to move
+	 */
+	public static int evaluate(Position position) {
+		int phase = position.getPhase();
+		int score = (position.getMidgameScore() * phase +
+			position.getEndgameScore() * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+		return (position.getSideToMove() == Position.WHITE) ? score : -score;
+	}
+
+}
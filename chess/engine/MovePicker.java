@@ -0,0 +1,231 @@
+package chess.engine;
+
+import chess.*;
+
+/**
+ * MovePicker: Hands out the legal moves of a position one at a time, likeliest to cause a cutoff first
+ *
+ * Moves come in stages:
+ *
+ * The move from the transposition table
+ * Captures that don't lose material, most valuable victim and least valuable attacker first
+ * The killer moves of the ply
+ * Other quiet moves, by their history score
+ * Captures that lose material
+ *
+ * A stage's moves are only generated once the earlier stages are used up, so a
+ * cutoff on an early move saves generating the rest. A MovePicker is reused
+ * for every position searched at its ply.
+ */
+public class MovePicker {
+
+	private static final int STAGE_HASH_MOVE = 0;
+	private static final int STAGE_GENERATE_CAPTURES = 1;
+	private static final int STAGE_GOOD_CAPTURES = 2;
+	private static final int STAGE_KILLERS = 3;
+	private static final int STAGE_GENERATE_QUIETS = 4;
+	private static final int STAGE_QUIETS = 5;
+	private static final int STAGE_BAD_CAPTURES = 6;
+	private static final int STAGE_SORTED = 7;
+	private static final int STAGE_DONE = 8;
+
+	private final MoveList captures = new MoveList();
+	private final int[] captureScores = new int[MoveList.MAX_MOVES];
+	private final MoveList badCaptures = new MoveList();
+	private final MoveList quiets = new MoveList();
+	private final int[] quietScores = new int[MoveList.MAX_MOVES];
+
+	// Every move in order, for a picker whose moves were all generated up front, see rotate()
+	private final MoveList sorted = new MoveList();
+
+	private final StaticExchange exchange = new StaticExchange();
+
+	private Position position;
+	private int hashMove;
+	private int[] killers;
+	private int[][][] history;
+	private boolean capturesOnly;
+
+	private int stage;
+	private int index;
+
+	/**
+	 * Starts handing out the moves of a position
+	 * @param hashMove The best move stored for the position, or Move.NONE
+	 * @param killers The quiet moves that caused cutoffs at the same ply, or Move.NONE
+	 * @param history The history scores of quiet moves, indexed by color, from square and to square
+	 */
+	public void reset(Position position, int hashMove, int[] killers, int[][][] history) {
+		this.position = position;
+		this.hashMove = hashMove;
+		this.killers = killers;
+		this.history = history;
+		this.capturesOnly = false;
+		this.stage = STAGE_HASH_MOVE;
+	}
+
+	/**
+	 * Starts handing out only the captures of a position that don't lose material
+	 */
+	public void resetCaptures(Position position) {
+		this.position = position;
+		this.hashMove = Move.NONE;
+		this.killers = null;
+		this.history = null;
+		this.capturesOnly = true;
+		this.stage = STAGE_GENERATE_CAPTURES;
+	}
+
+	/**
+	 * @returns The next move, or Move.NONE once every move has been handed out
+	 */
+	public int next() {
+		switch(stage) {
+
+			case STAGE_HASH_MOVE:
+				stage = STAGE_GENERATE_CAPTURES;
+				if(hashMove != Move.NONE && position.isLegalMove(hashMove)) return hashMove;
+				hashMove = Move.NONE;
+				// Fall through
+
+			case STAGE_GENERATE_CAPTURES:
+				captures.clear();
+				badCaptures.clear();
+				position.generateLegalCaptures(position.getSideToMove(), captures);
+				for(int i = 0; i < captures.size(); i++) {
+					captureScores[i] = captureScore(captures.get(i));
+				}
+				index = 0;
+				stage = STAGE_GOOD_CAPTURES;
+				// Fall through
+
+			case STAGE_GOOD_CAPTURES:
+				while(index < captures.size()) {
+					int move = pickBest(captures, captureScores, index++);
+					if(Move.sameSquares(move, hashMove)) continue;
+
+					// Captures that lose material wait until after the quiet moves
+					if(exchange.evaluate(position, move) < 0) {
+						badCaptures.add(move);
+						continue;
+					}
+					return move;
+				}
+				if(capturesOnly) {
+					stage = STAGE_DONE;
+					return Move.NONE;
+				}
+				index = 0;
+				stage = STAGE_KILLERS;
+				// Fall through
+
+			case STAGE_KILLERS:
+				while(index < killers.length) {
+					int killer = killers[index++];
+					if(killer != Move.NONE && !Move.sameSquares(killer, hashMove) &&
+						!Move.isCapture(killer) && position.isLegalMove(killer))
+						return killer;
+				}
+				stage = STAGE_GENERATE_QUIETS;
+				// Fall through
+
+			case STAGE_GENERATE_QUIETS:
+				quiets.clear();
+				position.generateLegalQuiets(position.getSideToMove(), quiets);
+				int[][] colorHistory = history[position.getSideToMove()];
+				for(int i = 0; i < quiets.size(); i++) {
+					int move = quiets.get(i);
+					quietScores[i] = colorHistory[Move.getFrom(move)][Move.getTo(move)];
+				}
+				index = 0;
+				stage = STAGE_QUIETS;
+				// Fall through
+
+			case STAGE_QUIETS:
+				while(index < quiets.size()) {
+					int move = pickBest(quiets, quietScores, index++);
+					if(!Move.sameSquares(move, hashMove) && !isKiller(move)) return move;
+				}
+				index = 0;
+				stage = STAGE_BAD_CAPTURES;
+				// Fall through
+
+			case STAGE_BAD_CAPTURES:
+				if(index < badCaptures.size()) return badCaptures.get(index++);
+				stage = STAGE_DONE;
+				return Move.NONE;
+
+			case STAGE_SORTED:
+				if(index < sorted.size()) return sorted.get(index++);
+				stage = STAGE_DONE;
+				return Move.NONE;
+
+			default:
+				return Move.NONE;
+		}
+	}
+
+	/**
+	 * Generates all the remaining moves in order, then rotates those after the first by the given amount
+	 * Helper threads of a parallel search use this to start on different root moves
+	 */
+	public void rotate(int shift) {
+		sorted.clear();
+		for(int move = next(); move != Move.NONE; move = next()) {
+			sorted.add(move);
+		}
+
+		int count = sorted.size() - 1;
+		if(count > 1) {
+			int[] rotated = new int[count];
+			for(int i = 0; i < count; i++) {
+				rotated[i] = sorted.get(1 + (i + shift) % count);
+			}
+			for(int i = 0; i < count; i++) {
+				sorted.set(1 + i, rotated[i]);
+			}
+		}
+
+		index = 0;
+		stage = STAGE_SORTED;
+	}
+
+	/**
+	 * @returns Whether the move was handed out as a killer, which only happens when it is legal here
+	 */
+	private boolean isKiller(int move) {
+		for(int killer : killers) {
+			if(move == killer) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Swaps the best scoring move from the given index on into that index
+	 * @returns The move now at the index
+	 */
+	private static int pickBest(MoveList moves, int[] scores, int index) {
+		int best = index;
+		for(int i = index + 1; i < moves.size(); i++) {
+			if(scores[i] > scores[best]) best = i;
+		}
+
+		int move = moves.get(best);
+		int score = scores[best];
+		moves.set(best, moves.get(index));
+		scores[best] = scores[index];
+		moves.set(index, move);
+		scores[index] = score;
+		return move;
+	}
+
+	/**
+	 * @returns A score ordering captures by the value of the victim, then by the value of the attacker
+	 * The smallest gap between victims' values, times 100, is more than any attacker is worth
+	 */
+	private static int captureScore(int move) {
+		return Evaluator.PIECE_VALUES[Position.typeOf(Move.getCapturedPiece(move))] * 100 -
+			Evaluator.PIECE_VALUES[Position.typeOf(Move.getMovedPiece(move))];
+	}
+
+}
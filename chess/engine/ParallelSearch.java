@@ -0,0 +1,192 @@
+package chess.engine;
+
+import chess.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * ParallelSearch: Searches one position on several threads at once (Lazy SMP)
+ *
+ * Every thread runs its own Search on its own copy of the game, and all of them
+ * share one TranspositionTable. Helper threads search at staggered depths and
+ * with their root moves in a different order, so the results they store let the
+ * main thread cut off more of its tree. The result is the main thread's, with
+ * the nodes of every thread added up.
+ *
+ * Usage: java chess.engine.ParallelSearch [standard|custom] <depth> [threads]
+ */
+public class ParallelSearch {
+
+	private final Game game;
+	private final TranspositionTable table;
+	private int threads;
+	private Search.SearchEventListener eventListener;
+	private SearchParameters parameters = new SearchParameters();
+
+	// The searches currently running, the main thread's first
+	private volatile Search[] searches = new Search[0];
+
+	/*
+	 * The number of the current or last search, counting from 1, and the number of the
+	 * search stop() was last called for. A stop that arrives before a search has stored
+	 * its threads' searches still reaches them, while one left from an earlier search
+	 * doesn't stop the next. A stop before the first search is for the first search.
+	 */
+	private volatile int generation;
+	private volatile int stoppedGeneration;
+
+	/**
+	 * @param game The game to search, which is copied for each thread and never changed
+	 * @param threads The number of threads to search with, including the main thread
+	 */
+	public ParallelSearch(Game game, TranspositionTable table, int threads) {
+		this.game = game;
+		this.table = table;
+		setThreads(threads);
+	}
+
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets which pruning techniques every thread uses, and how
+	 */
+	public void setParameters(SearchParameters parameters) {
+		this.parameters = parameters;
+	}
+
+	/**
+	 * Registers a listener for the main thread's completed iterations,
+	 * which report the nodes of all threads
+	 */
+	public void setSearchEventListener(Search.SearchEventListener eventListener) {
+		this.eventListener = eventListener;
+	}
+
+	/**
+	 * Asks all threads of the current search to stop as soon as possible,
+	 * even if the search hasn't started them yet
+	 * Safe to call from another thread
+	 */
+	public void stop() {
+		stoppedGeneration = Math.max(generation, 1);
+		for(Search search : searches) {
+			search.stop();
+		}
+	}
+
+	/**
+	 * @returns The number of positions visited by all threads in the current or last search
+	 */
+	public long getNodes() {
+		long nodes = 0;
+		for(Search search : searches) {
+			nodes += search.getNodes();
+		}
+		return nodes;
+	}
+
+	/**
+	 * @returns How often each pruning technique took effect, over all threads
+	 */
+	public SearchStatistics getStatistics() {
+		SearchStatistics statistics = new SearchStatistics();
+		for(Search search : searches) {
+			statistics.add(search.getStatistics());
+		}
+		return statistics;
+	}
+
+	/**
+	 * Searches until the main thread reaches one of the given limits, then stops the helpers
+	 * The node limit applies to the main thread alone
+	 * @returns The main thread's result, counting the nodes of all threads
+	 */
+	public SearchResult search(SearchLimits limits) throws InterruptedException, ExecutionException {
+		int generation = ++this.generation;
+		table.newSearch();
+
+		Search[] searches = new Search[threads];
+		for(int i = 0; i < threads; i++) {
+			searches[i] = new Search(game.copy(), table, i);
+			searches[i].setParameters(parameters);
+		}
+		searches[0].setSearchEventListener(result -> {
+			if(eventListener != null) eventListener.onIterationComplete(withTotalNodes(result));
+		});
+		this.searches = searches;
+		if(stoppedGeneration == generation) stop();
+
+		// Helpers run until the main thread is done with them
+		SearchLimits helperLimits = SearchLimits.depth(limits.maxDepth);
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<SearchResult>> results = new ArrayList<Future<SearchResult>>();
+			results.add(pool.submit(() -> searches[0].iterate(limits)));
+			for(int i = 1; i < threads; i++) {
+				Search helper = searches[i];
+				results.add(pool.submit(() -> helper.iterate(helperLimits)));
+			}
+
+			SearchResult result;
+			try {
+				result = results.get(0).get();
+			} finally {
+				stop();
+			}
+
+			// Wait for the helpers, so the game copies are no longer in use and their node counts are final
+			for(int i = 1; i < threads; i++) {
+				results.get(i).get();
+			}
+			return withTotalNodes(result);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private SearchResult withTotalNodes(SearchResult result) {
+		return new SearchResult(result.depth, result.score, getNodes(), result.timeMillis, result.principalVariation);
+	}
+
+	public static void main(String[] args) throws Exception {
+		if(args.length < 2) {
+			System.err.println("Usage: java chess.engine.ParallelSearch [standard|custom] <depth> [threads]");
+			System.exit(1);
+		}
+
+		Chess.useCustomPieces(args[0].equals("custom"));
+		int depth = Integer.parseInt(args[1]);
+		int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		Game game = new Game();
+		game.startGame();
+
+		ParallelSearch search = new ParallelSearch(game, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB), threads);
+		search.setSearchEventListener(result -> {
+			System.out.println("Depth " + result.depth + ": score " + result.score +
+				", nodes " + result.nodes + ", nodes/sec " + result.getNodesPerSecond());
+		});
+		SearchResult result = search.search(SearchLimits.depth(depth));
+
+		System.out.println();
+		System.out.println("Best move: " + Move.toString(result.getBestMove()));
+		System.out.println("Threads: " + threads);
+		System.out.println("Nodes: " + result.nodes);
+		System.out.println("Time: " + String.format("%.3f", result.timeMillis / 1000.0) + " s");
+		System.out.println("Nodes/sec: " + result.getNodesPerSecond());
+		System.out.println(search.getStatistics());
+	}
+
+}
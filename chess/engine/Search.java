@@ -0,0 +1,516 @@
+package chess.engine;
+
+import chess.*;
+
+/**
+ * Search: A negamax alpha-beta searcher with iterative deepening
+ *
+ * To search a game:
+ *
+ * Create a Search on the game, sharing a TranspositionTable if desired
+ * Call search() with the limits to search to
+ * search() plays and takes back moves on the game, so it must not
+ * be used by anything else until search() returns
+ */
+public class Search {
+
+	/**
+	 * SearchEventListener: An interface that must be implemented in order to receive
+	 * notifications of search progress
+	 */
+	public static interface SearchEventListener {
+		void onIterationComplete(SearchResult result); // Called after each completed depth
+	}
+
+	/**
+	 * The score of giving mate on the current move
+	 * Mates further away score lower, by one per ply
+	 */
+	public static final int MATE = 30000;
+
+	public static final int INFINITY = 32000;
+
+	public static final int DRAW = 0;
+
+	// Scores beyond this are mate scores
+	private static final int MATE_BOUND = MATE - 2 * SearchLimits.MAX_DEPTH;
+
+	// The number of nodes between checks of the clock
+	private static final int TIME_CHECK_INTERVAL = 1024;
+
+	private final Game game;
+	private final TranspositionTable table;
+	private SearchEventListener eventListener;
+
+	// 0 for a search of its own or the main thread of a parallel search, otherwise a helper's number
+	private final int helperId;
+
+	// Quiet history scores above this halve the whole table, so old successes fade
+	private static final int HISTORY_LIMIT = 1 << 20;
+
+	// One reusable move picker per ply
+	private final MovePicker[] movePickers = new MovePicker[SearchLimits.MAX_DEPTH + 1];
+
+	// The last two quiet moves to cause a cutoff at each ply
+	private final int[][] killers = new int[SearchLimits.MAX_DEPTH + 1][2];
+
+	// How often each quiet move has caused a cutoff, weighted by depth, indexed by color, from and to squares
+	private final int[][][] history = new int[2][Bitboards.NUM_SQUARES][Bitboards.NUM_SQUARES];
+
+	// The triangular table of principal variations found at each ply
+	private final int[][] pvTable = new int[SearchLimits.MAX_DEPTH + 1][SearchLimits.MAX_DEPTH + 1];
+	private final int[] pvLength = new int[SearchLimits.MAX_DEPTH + 1];
+
+	private SearchParameters parameters = new SearchParameters();
+	private final SearchStatistics statistics = new SearchStatistics();
+
+	private SearchLimits limits;
+	private long startTime;
+	private long nodes;
+	private volatile boolean stopped;
+
+	/**
+	 * @param game The game to search, which must have been started
+	 * @param table The transposition table to use, which may be shared with other searches
+	 */
+	public Search(Game game, TranspositionTable table) {
+		this(game, table, 0);
+	}
+
+	/**
+	 * @param helperId The number of the helper thread in a parallel search, which
+	 * varies its depths and root move order from the main thread's, or 0 for the main thread
+	 */
+	Search(Game game, TranspositionTable table, int helperId) {
+		this.game = game;
+		this.table = table;
+		this.helperId = helperId;
+		for(int ply = 0; ply <= SearchLimits.MAX_DEPTH; ply++) {
+			movePickers[ply] = new MovePicker();
+		}
+	}
+
+	/**
+	 * Registers an event listener
+	 */
+	public void setSearchEventListener(SearchEventListener eventListener) {
+		this.eventListener = eventListener;
+	}
+
+	/**
+	 * Asks a running search to stop as soon as possible
+	 * Safe to call from another thread
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Sets which pruning techniques the next search uses, and how
+	 */
+	public void setParameters(SearchParameters parameters) {
+		this.parameters = parameters;
+	}
+
+	/**
+	 * @returns How often each pruning technique took effect in the current or last search
+	 */
+	public SearchStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Searches the side to move's position, deepening one ply at a time until a limit is reached
+	 * @returns The result of the deepest completed iteration
+	 */
+	public SearchResult search(SearchLimits limits) {
+		this.stopped = false;
+		table.newSearch();
+		return iterate(limits);
+	}
+
+	/**
+	 * Runs iterative deepening without starting a new generation of the transposition table,
+	 * so several threads can search the same root together
+	 * A search stopped before this is called returns after its first iteration
+	 */
+	SearchResult iterate(SearchLimits limits) {
+		this.limits = limits;
+		this.startTime = System.currentTimeMillis();
+		this.nodes = 0;
+		statistics.clear();
+		clearOrdering();
+
+		SearchResult result = null;
+		for(int iteration = 1; iteration <= limits.maxDepth; iteration++) {
+			// Odd-numbered helpers stay a ply ahead, so threads don't all finish the same depths together
+			int depth = Math.min(iteration + (helperId & 1), limits.maxDepth);
+			int score = (result == null) ? searchRoot(depth) : searchRoot(depth, result.score);
+
+			// Keep an unfinished iteration only if no earlier one finished
+			if(stopped && result != null) break;
+
+			result = new SearchResult(depth, score, nodes, elapsedMillis(), getPrincipalVariation());
+			if(eventListener != null) {
+				eventListener.onIterationComplete(result);
+			}
+
+			if(stopped) break;
+		}
+
+		return ensureBestMove(result);
+	}
+
+	/**
+	 * @returns The best line found by the last iteration, starting with its best move
+	 */
+	public int[] getPrincipalVariation() {
+		int[] pv = new int[pvLength[0]];
+		System.arraycopy(pvTable[0], 0, pv, 0, pv.length);
+		return pv;
+	}
+
+	/**
+	 * Searches the root position to the given depth
+	 */
+	private int searchRoot(int depth) {
+		return negamax(depth, 0, -INFINITY, INFINITY, false);
+	}
+
+	/**
+	 * Searches the root position to the given depth, expecting a score near the last iteration's
+	 */
+	private int searchRoot(int depth, int previousScore) {
+		if(!parameters.aspirationWindows || depth < parameters.aspirationMinDepth ||
+			Math.abs(previousScore) >= MATE_BOUND)
+			return searchRoot(depth);
+
+		int window = parameters.aspirationWindow;
+		int alpha = previousScore - window;
+		int beta = previousScore + window;
+		while(true) {
+			int score = negamax(depth, 0, alpha, beta, false);
+			if(stopped) return score;
+
+			// Widen the side the score fell out of, until it lands inside
+			if(score <= alpha) {
+				statistics.aspirationFailLows++;
+				alpha = Math.max(score - window, -INFINITY);
+			} else if(score >= beta) {
+				statistics.aspirationFailHighs++;
+				beta = Math.min(score + window, INFINITY);
+			} else {
+				return score;
+			}
+			window *= 2;
+		}
+	}
+
+	/**
+	 * @returns The score of the current position from the side to move's point of view,
+	 * exact if it lies strictly between alpha and beta, and otherwise a bound
+	 * @param allowNullMove Whether passing the turn may be tried, which it can't be twice in a row
+	 */
+	private int negamax(int depth, int ply, int alpha, int beta, boolean allowNullMove) {
+		pvLength[ply] = ply;
+		nodes++;
+		if(shouldStop()) return DRAW;
+
+		Position position = game.getBoard().getPosition();
+		if(isDrawnByMaterial(position)) return DRAW;
+		if(depth <= 0) return quiesce(ply, alpha, beta);
+		if(ply >= SearchLimits.MAX_DEPTH) return Evaluator.evaluate(position);
+
+		// Look for a result from an earlier search of this position
+		long key = position.getKey();
+		long entry = table.probe(key);
+		int hashMove = Move.NONE;
+		if(entry != TranspositionTable.MISS) {
+			hashMove = TranspositionTable.getMove(entry);
+
+			if(ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+				int score = scoreFromTable(TranspositionTable.getScore(entry), ply);
+				int bound = TranspositionTable.getBound(entry);
+				if(bound == TranspositionTable.BOUND_EXACT ||
+					(bound == TranspositionTable.BOUND_LOWER && score >= beta) ||
+					(bound == TranspositionTable.BOUND_UPPER && score <= alpha))
+					return score;
+			}
+		}
+
+		int color = position.getSideToMove();
+		boolean inCheck = position.isInCheck(color);
+
+		// Nodes searched with a null window only need to prove a bound, so they may be pruned
+		boolean pvNode = beta - alpha > 1;
+		int staticScore = inCheck ? -INFINITY : Evaluator.evaluate(position);
+
+		if(parameters.nullMovePruning && allowNullMove && !pvNode && !inCheck &&
+			depth >= parameters.nullMoveMinDepth && staticScore >= beta &&
+			Math.abs(beta) < MATE_BOUND && hasPiecesBesidesPawns(position, color)) {
+
+			game.makeNullMove();
+			int score = -negamax(depth - 1 - parameters.nullMoveReduction, ply + 1, -beta, -beta + 1, false);
+			game.unmakeNullMove();
+
+			if(stopped) return DRAW;
+			if(score >= beta) {
+				statistics.nullMoveCutoffs++;
+				return (score >= MATE_BOUND) ? beta : score;
+			}
+		}
+
+		// Near the leaves, a quiet move can't make up for a score far below alpha
+		boolean futile = parameters.futilityPruning && !pvNode && !inCheck &&
+			depth <= parameters.futilityMaxDepth && Math.abs(alpha) < MATE_BOUND &&
+			staticScore + parameters.futilityMargin * depth <= alpha;
+
+		MovePicker movePicker = movePickers[ply];
+		movePicker.reset(position, hashMove, killers[ply], history);
+		if(ply == 0 && helperId > 0) movePicker.rotate(helperId);
+
+		int originalAlpha = alpha;
+		int bestScore = -INFINITY;
+		int bestMove = Move.NONE;
+		int movesSearched = 0;
+		for(int move = movePicker.next(); move != Move.NONE; move = movePicker.next()) {
+			boolean quiet = !Move.isCapture(move);
+			boolean killer = (move == killers[ply][0] || move == killers[ply][1]);
+
+			game.makeMove(move);
+			boolean givesCheck = position.isInCheck(position.getSideToMove());
+
+			if(futile && movesSearched > 0 && quiet && !givesCheck) {
+				game.unmakeMove();
+				statistics.futilityPrunes++;
+				bestScore = Math.max(bestScore, staticScore + parameters.futilityMargin * depth);
+				continue;
+			}
+
+			int score;
+			if(movesSearched == 0) {
+				score = -negamax(depth - 1, ply + 1, -beta, -alpha, true);
+			} else {
+				// Later moves only need to show they are no better than alpha, at first at reduced depth
+				int reduction = 0;
+				if(parameters.lateMoveReductions && depth >= parameters.lateMoveMinDepth &&
+					movesSearched >= parameters.lateMoveMinMoves && quiet && !killer && !inCheck && !givesCheck) {
+					reduction = (movesSearched >= 3 * parameters.lateMoveMinMoves) ? 2 : 1;
+					// Never reduce below one ply, whatever lateMoveMinDepth is set to
+					reduction = Math.max(0, Math.min(reduction, depth - 2));
+					if(reduction > 0) statistics.lateMoveReductions++;
+				}
+
+				score = -negamax(depth - 1 - reduction, ply + 1, -alpha - 1, -alpha, true);
+				if(score > alpha && reduction > 0) {
+					statistics.lateMoveResearches++;
+					score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha, true);
+				}
+				if(score > alpha && score < beta) {
+					score = -negamax(depth - 1, ply + 1, -beta, -alpha, true);
+				}
+			}
+			game.unmakeMove();
+			movesSearched++;
+
+			if(stopped) return DRAW;
+
+			if(score > bestScore) {
+				bestScore = score;
+				bestMove = move;
+
+				if(score > alpha) {
+					alpha = score;
+					updatePrincipalVariation(ply, move);
+					if(alpha >= beta) {
+						if(quiet) updateQuietOrdering(color, ply, depth, move);
+						break;
+					}
+				}
+			}
+		}
+
+		if(bestScore == -INFINITY) {
+			// Checkmate or stalemate
+			return inCheck ? -MATE + ply : DRAW;
+		}
+
+		int bound;
+		if(bestScore >= beta) bound = TranspositionTable.BOUND_LOWER;
+		else if(bestScore > originalAlpha) bound = TranspositionTable.BOUND_EXACT;
+		else bound = TranspositionTable.BOUND_UPPER;
+		table.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+
+		return bestScore;
+	}
+
+	/**
+	 * @returns Whether the given side has anything but its king and pawns, without which
+	 * it may be in zugzwang and null-move pruning can't be trusted
+	 */
+	private static boolean hasPiecesBesidesPawns(Position position, int color) {
+		return (position.getPieces(color) & ~position.getPieces(color, Position.PAWN) &
+			~position.getPieces(color, Position.KING)) != 0;
+	}
+
+	/**
+	 * Searches captures until the position is quiet, so leaf scores don't miss a piece left hanging
+	 * The side to move may stand pat on the static score instead, unless it is in check,
+	 * and captures that lose material in the exchange are skipped
+	 */
+	private int quiesce(int ply, int alpha, int beta) {
+		pvLength[ply] = ply;
+		nodes++;
+		if(shouldStop()) return DRAW;
+
+		Position position = game.getBoard().getPosition();
+		if(isDrawnByMaterial(position)) return DRAW;
+		if(ply >= SearchLimits.MAX_DEPTH) return Evaluator.evaluate(position);
+
+		int color = position.getSideToMove();
+		boolean inCheck = position.isInCheck(color);
+		MovePicker movePicker = movePickers[ply];
+
+		int bestScore;
+		if(inCheck) {
+			// Every evasion is searched, since standing pat would ignore the check
+			movePicker.reset(position, Move.NONE, killers[ply], history);
+			bestScore = -INFINITY;
+		} else {
+			bestScore = Evaluator.evaluate(position);
+			if(bestScore >= beta) return bestScore;
+			if(bestScore > alpha) alpha = bestScore;
+			movePicker.resetCaptures(position);
+		}
+
+		for(int move = movePicker.next(); move != Move.NONE; move = movePicker.next()) {
+			game.makeMove(move);
+			int score = -quiesce(ply + 1, -beta, -alpha);
+			game.unmakeMove();
+
+			if(stopped) return DRAW;
+
+			if(score > bestScore) {
+				bestScore = score;
+
+				if(score > alpha) {
+					alpha = score;
+					updatePrincipalVariation(ply, move);
+					if(alpha >= beta) break;
+				}
+			}
+		}
+
+		// In check with no evasions
+		if(bestScore == -INFINITY) return -MATE + ply;
+
+		return bestScore;
+	}
+
+	/**
+	 * Remembers a quiet move that caused a cutoff, so it is tried early in sibling positions
+	 */
+	private void updateQuietOrdering(int color, int ply, int depth, int move) {
+		int[] plyKillers = killers[ply];
+		if(plyKillers[0] != move) {
+			plyKillers[1] = plyKillers[0];
+			plyKillers[0] = move;
+		}
+
+		int[] fromHistory = history[color][Move.getFrom(move)];
+		fromHistory[Move.getTo(move)] += depth * depth;
+		if(fromHistory[Move.getTo(move)] > HISTORY_LIMIT) ageHistory();
+	}
+
+	private void ageHistory() {
+		for(int[][] colorHistory : history) {
+			for(int[] fromHistory : colorHistory) {
+				for(int to = 0; to < fromHistory.length; to++) {
+					fromHistory[to] /= 2;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forgets the killer moves of the last search and weakens its history scores
+	 */
+	private void clearOrdering() {
+		for(int[] plyKillers : killers) {
+			plyKillers[0] = Move.NONE;
+			plyKillers[1] = Move.NONE;
+		}
+		ageHistory();
+	}
+
+	/**
+	 * @returns Whether only the two kings are left, which the game scores as a stalemate
+	 */
+	private boolean isDrawnByMaterial(Position position) {
+		return Long.bitCount(position.getOccupied()) == 2;
+	}
+
+	/**
+	 * @returns Whether the search has reached its node or time limit, or was asked to stop
+	 */
+	private boolean shouldStop() {
+		if(stopped) return true;
+
+		if(nodes >= limits.maxNodes) {
+			stopped = true;
+		} else if(limits.maxTimeMillis > 0 && nodes % TIME_CHECK_INTERVAL == 0 &&
+				elapsedMillis() >= limits.maxTimeMillis) {
+			stopped = true;
+		}
+		return stopped;
+	}
+
+	private long elapsedMillis() {
+		return System.currentTimeMillis() - startTime;
+	}
+
+	/**
+	 * Records the given move, followed by the best line from the next ply, as the best line at this ply
+	 */
+	private void updatePrincipalVariation(int ply, int move) {
+		pvTable[ply][ply] = move;
+		for(int next = ply + 1; next < pvLength[ply + 1]; next++) {
+			pvTable[ply][next] = pvTable[ply + 1][next];
+		}
+		pvLength[ply] = pvLength[ply + 1];
+	}
+
+	/**
+	 * If the search stopped before any move was scored, falls back to the first legal move
+	 */
+	private SearchResult ensureBestMove(SearchResult result) {
+		if(result.getBestMove() != Move.NONE) return result;
+
+		MoveList moves = new MoveList();
+		game.generateLegalMoves(game.getTurnColor(), moves);
+		if(moves.isEmpty()) return result;
+
+		return new SearchResult(result.depth, result.score, result.nodes, result.timeMillis,
+			new int[]{ moves.get(0) });
+	}
+
+	/**
+	 * Mate scores are stored relative to the position, rather than to the root
+	 */
+	private static int scoreToTable(int score, int ply) {
+		if(score >= MATE_BOUND) return score + ply;
+		if(score <= -MATE_BOUND) return score - ply;
+		return score;
+	}
+
+	private static int scoreFromTable(int score, int ply) {
+		if(score >= MATE_BOUND) return score - ply;
+		if(score <= -MATE_BOUND) return score + ply;
+		return score;
+	}
+
+}
@@ -0,0 +1,44 @@
+package chess.engine;
+
+/**
+ * SearchLimits: A class describing when a search should stop
+ *
+ * A search stops when it completes maxDepth, visits maxNodes,
+ * or runs for maxTimeMillis, whichever comes first
+ */
+public class SearchLimits {
+
+	/**
+	 * The deepest the search can go, in plies
+	 */
+	public static final int MAX_DEPTH = 64;
+
+	public int maxDepth = MAX_DEPTH;
+
+	public long maxNodes = Long.MAX_VALUE;
+
+	// No time limit if 0
+	public long maxTimeMillis = 0;
+
+	/**
+	 * @returns Limits stopping at the given depth, which is kept between 1 and MAX_DEPTH
+	 */
+	public static SearchLimits depth(int maxDepth) {
+		SearchLimits limits = new SearchLimits();
+		limits.maxDepth = Math.max(1, Math.min(maxDepth, MAX_DEPTH));
+		return limits;
+	}
+
+	public static SearchLimits nodes(long maxNodes) {
+		SearchLimits limits = new SearchLimits();
+		limits.maxNodes = maxNodes;
+		return limits;
+	}
+
+	public static SearchLimits time(long maxTimeMillis) {
+		SearchLimits limits = new SearchLimits();
+		limits.maxTimeMillis = maxTimeMillis;
+		return limits;
+	}
+
+}
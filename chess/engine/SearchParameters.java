@@ -0,0 +1,59 @@
+package chess.engine;
+
+/**
+ * SearchParameters: A class holding the switches and tuning values of the search's pruning
+ *
+ * Each technique can be turned off on its own, to measure how many nodes it saves
+ * with the counters in SearchStatistics.
+ */
+public class SearchParameters {
+
+	/**
+	 * Null-move pruning: if passing the turn still scores at least beta in a
+	 * shallower search, the position is assumed good enough to cut off.
+	 * Skipped in check and when the side to move has only its king and pawns,
+	 * where passing may be better than any move (zugzwang).
+	 */
+	public boolean nullMovePruning = true;
+	public int nullMoveMinDepth = 3;
+	public int nullMoveReduction = 2;
+
+	/**
+	 * Late move reductions: quiet moves ordered late are searched to a reduced
+	 * depth first, and only searched fully if they turn out better than expected
+	 */
+	public boolean lateMoveReductions = true;
+	public int lateMoveMinDepth = 3;
+	// The number of moves searched at full depth before reducing
+	public int lateMoveMinMoves = 4;
+
+	/**
+	 * Futility pruning: near the leaves, quiet moves are skipped when the static
+	 * score is so far below alpha that no quiet move could plausibly make it up
+	 */
+	public boolean futilityPruning = true;
+	public int futilityMaxDepth = 3;
+	// The centipawns a quiet move could gain per ply of remaining depth
+	public int futilityMargin = 150;
+
+	/**
+	 * Aspiration windows: each iteration searches a narrow window around the
+	 * previous iteration's score, widening it only if the score falls outside
+	 */
+	public boolean aspirationWindows = true;
+	public int aspirationMinDepth = 4;
+	public int aspirationWindow = 50;
+
+	/**
+	 * @returns Parameters with every pruning technique turned off
+	 */
+	public static SearchParameters none() {
+		SearchParameters parameters = new SearchParameters();
+		parameters.nullMovePruning = false;
+		parameters.lateMoveReductions = false;
+		parameters.futilityPruning = false;
+		parameters.aspirationWindows = false;
+		return parameters;
+	}
+
+}
@@ -0,0 +1,63 @@
+package chess.engine;
+
+import chess.Move;
+
+/**
+ * SearchResult: A class holding the outcome of a completed search iteration
+ */
+public class SearchResult {
+
+	// The depth of the iteration, in plies
+	public final int depth;
+
+	// The score of the best move, from the point of view of the side to move
+	public final int score;
+
+	// The number of positions visited by the whole search so far
+	public final long nodes;
+
+	// The time spent by the whole search so far
+	public final long timeMillis;
+
+	// The best line of play found, starting with the best move
+	public final int[] principalVariation;
+
+	public SearchResult(int depth, int score, long nodes, long timeMillis, int[] principalVariation) {
+		this.depth = depth;
+		this.score = score;
+		this.nodes = nodes;
+		this.timeMillis = timeMillis;
+		this.principalVariation = principalVariation;
+	}
+
+	/**
+	 * @returns The best move found, or Move.NONE if the side to move has no legal moves
+	 */
+	public int getBestMove() {
+		return (principalVariation.length > 0) ? principalVariation[0] : Move.NONE;
+	}
+
+	/**
+	 * @returns Whether the score is a forced mate, for either side
+	 */
+	public boolean isMateScore() {
+		return Math.abs(score) >= Search.MATE - SearchLimits.MAX_DEPTH * 2;
+	}
+
+	/**
+	 * @returns The number of moves until mate, negative if the side to move is being mated
+	 */
+	public int getMateInMoves() {
+		int plies = Search.MATE - Math.abs(score);
+		int moves = (plies + 1) / 2;
+		return (score > 0) ? moves : -moves;
+	}
+
+	/**
+	 * @returns The number of positions visited per second
+	 */
+	public long getNodesPerSecond() {
+		return nodes * 1000 / Math.max(1, timeMillis);
+	}
+
+}
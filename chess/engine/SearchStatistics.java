@@ -0,0 +1,50 @@
+package chess.engine;
+
+/**
+ * SearchStatistics: A class counting how often each pruning technique took effect in a search
+ */
+public class SearchStatistics {
+
+	// Null-move searches that scored at least beta, cutting off the node
+	public long nullMoveCutoffs;
+
+	// Moves searched at a reduced depth, and those of them searched again at full depth
+	public long lateMoveReductions;
+	public long lateMoveResearches;
+
+	// Quiet moves skipped as futile
+	public long futilityPrunes;
+
+	// Iterations searched again because the score fell outside the aspiration window
+	public long aspirationFailLows;
+	public long aspirationFailHighs;
+
+	public void clear() {
+		nullMoveCutoffs = 0;
+		lateMoveReductions = 0;
+		lateMoveResearches = 0;
+		futilityPrunes = 0;
+		aspirationFailLows = 0;
+		aspirationFailHighs = 0;
+	}
+
+	/**
+	 * Adds another search's counts to these, to total the threads of a parallel search
+	 */
+	public void add(SearchStatistics other) {
+		nullMoveCutoffs += other.nullMoveCutoffs;
+		lateMoveReductions += other.lateMoveReductions;
+		lateMoveResearches += other.lateMoveResearches;
+		futilityPrunes += other.futilityPrunes;
+		aspirationFailLows += other.aspirationFailLows;
+		aspirationFailHighs += other.aspirationFailHighs;
+	}
+
+	public String toString() {
+		return "Null-move cutoffs: " + nullMoveCutoffs + "\n" +
+			"Late move reductions: " + lateMoveReductions + " (" + lateMoveResearches + " searched again)\n" +
+			"Futility prunes: " + futilityPrunes + "\n" +
+			"Aspiration fails: " + aspirationFailLows + " low, " + aspirationFailHighs + " high";
+	}
+
+}
@@ -0,0 +1,84 @@
+package chess.engine;
+
+import chess.*;
+
+/**
+ * StaticExchange: A class that works out the material won or lost by a capture,
+ * assuming both sides keep recapturing on its square with their cheapest piece
+ *
+ * Each side may stop recapturing when going on would lose material. Pieces
+ * that leave the square's lines uncover the sliders behind them, and MegaRooks
+ * attack the square through any blockers. Pins are not taken into account.
+ * A StaticExchange is reused for every capture it evaluates, so each thread needs its own.
+ */
+public class StaticExchange {
+
+	// Piece types from cheapest to dearest, the king last since it can never be taken
+	private static final int[] CAPTURE_ORDER = new int[]{
+		Position.PAWN, Position.KNIGHT, Position.BISHOP, Position.ROOK,
+		Position.FLIPFLOPPER, Position.MEGAROOK, Position.QUEEN, Position.KING
+	};
+
+	// More captures than there are pieces to make them
+	private static final int MAX_EXCHANGES = 33;
+
+	// The net gain after each capture of the exchange being evaluated, reused between calls
+	private final int[] gain = new int[MAX_EXCHANGES];
+
+	/**
+	 * @returns The material the side making the move gains from the exchange it starts,
+	 * in centipawns, or a negative number if it loses material
+	 */
+	public int evaluate(Position position, int move) {
+		int target = Move.getTo(move);
+
+		int captured = Move.getCapturedPiece(move);
+		gain[0] = (captured == Position.NO_PIECE) ? 0 : value(Position.typeOf(captured));
+
+		int attackerType = Position.typeOf(Move.getMovedPiece(move));
+		int side = Position.colorOf(Move.getMovedPiece(move));
+		long occupied = position.getOccupied() & ~Bitboards.bit(Move.getFrom(move));
+
+		int depth = 0;
+		while(true) {
+			depth++;
+
+			// The net gain for the side to capture next, if it takes the last capturer and nothing takes back
+			gain[depth] = value(attackerType) - gain[depth - 1];
+
+			side = Position.opponent(side);
+			long attackers = position.getAttackers(target, side, occupied) & occupied;
+			if(attackers == 0) break;
+
+			int square = -1;
+			for(int type : CAPTURE_ORDER) {
+				long pieces = attackers & position.getPieces(side, type);
+				if(pieces != 0) {
+					square = Long.numberOfTrailingZeros(pieces);
+					attackerType = type;
+					break;
+				}
+			}
+
+			// The king can only take last, when it can't be taken back
+			if(attackerType == Position.KING) {
+				long remaining = occupied & ~Bitboards.bit(square);
+				if((position.getAttackers(target, Position.opponent(side), remaining) & remaining) != 0) break;
+			}
+
+			// Removing the capturer uncovers any slider behind it
+			occupied &= ~Bitboards.bit(square);
+		} // END WHILE
+
+		// Each side takes the better of capturing and stopping, from the last capture back
+		while(--depth > 0) {
+			gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+		}
+		return gain[0];
+	}
+
+	private static int value(int type) {
+		return Evaluator.PIECE_VALUES[type];
+	}
+
+}
@@ -0,0 +1,214 @@
+package chess.engine;
+
+import chess.Move;
+
+import java.util.Arrays;
+
+/**
+ * TranspositionTable: A fixed-size table of search results, keyed by position hash
+ *
+ * Entries are packed into two parallel long arrays: one holding the entry's data,
+ * the other holding the position key XORed with that data. A reader only accepts an
+ * entry if the two words XOR back to the key it probed, so a write torn by another
+ * thread reads as a miss instead of a wrong result. This makes the table safe to
+ * share between search threads without locks.
+ *
+ * Entries are grouped into buckets. When a bucket is full, the entry with the
+ * lowest depth is replaced, counting entries left by earlier searches as shallower.
+ */
+public class TranspositionTable {
+
+	/**
+	 * Bound types: whether a stored score is exact, or only a lower or upper bound
+	 */
+	public static final int BOUND_LOWER = 1;
+	public static final int BOUND_UPPER = 2;
+	public static final int BOUND_EXACT = 3;
+
+	/**
+	 * The entry data returned by probe() when a position is not in the table
+	 */
+	public static final long MISS = 0L;
+
+	/**
+	 * The memory budget to use when none is given, in megabytes
+	 */
+	public static final int DEFAULT_SIZE_MB = 64;
+
+	// The number of entries that share a bucket
+	private static final int BUCKET_SIZE = 4;
+
+	// The bytes of memory taken by each entry
+	private static final int ENTRY_BYTES = 16;
+
+	// How much an entry's effective depth drops for each search it is older than the current one
+	private static final int AGE_PENALTY = 4;
+
+	/*
+	 * Layout of an entry's data: the best move in bits 0-21, the score offset
+	 * by SCORE_OFFSET in bits 22-37, the depth in bits 38-45, the bound in
+	 * bits 46-47 and the age in bits 48-55. A stored entry always has a
+	 * non-zero bound, so its data is never MISS.
+	 */
+	private static final long MOVE_MASK = (1L << 22) - 1;
+	private static final int SCORE_SHIFT = 22;
+	private static final int SCORE_OFFSET = 1 << 15;
+	private static final int DEPTH_SHIFT = 38;
+	private static final int BOUND_SHIFT = 46;
+	private static final int AGE_SHIFT = 48;
+	private static final int AGE_MASK = 0xFF;
+
+	private long[] keys;
+	private long[] data;
+
+	// The mask selecting a bucket's first entry from a key
+	private int bucketMask;
+
+	// The age of entries stored by the current search
+	private volatile int age;
+
+	/**
+	 * @param megabytes The memory budget of the table
+	 */
+	public TranspositionTable(int megabytes) {
+		resize(megabytes);
+	}
+
+	/**
+	 * Reallocates the table to fit the given memory budget, discarding all entries
+	 * The number of buckets is rounded down to a power of two
+	 */
+	public void resize(int megabytes) {
+		long bytes = Math.max(1, megabytes) * 1024L * 1024L;
+		long buckets = Long.highestOneBit(bytes / (ENTRY_BYTES * BUCKET_SIZE));
+		int entries = (int) Math.min(buckets * BUCKET_SIZE, Integer.highestOneBit(Integer.MAX_VALUE));
+
+		keys = new long[entries];
+		data = new long[entries];
+		bucketMask = (entries - 1) & ~(BUCKET_SIZE - 1);
+		age = 0;
+	}
+
+	/**
+	 * Discards all entries
+	 */
+	public void clear() {
+		Arrays.fill(keys, 0L);
+		Arrays.fill(data, 0L);
+		age = 0;
+	}
+
+	/**
+	 * Marks the start of a new search, so entries from earlier searches are replaced first
+	 */
+	public void newSearch() {
+		age = (age + 1) & AGE_MASK;
+	}
+
+	/**
+	 * @returns The data of the entry stored for the given key, or MISS if there is none
+	 */
+	public long probe(long key) {
+		int bucket = (int) key & bucketMask;
+		for(int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+			long entry = data[i];
+			if((keys[i] ^ entry) == key && entry != MISS) return entry;
+		}
+		return MISS;
+	}
+
+	/**
+	 * Stores a search result, replacing the existing entry for the key if there is one,
+	 * or else the entry of the bucket with the lowest age-adjusted depth
+	 * @param move The best move found, or Move.NONE
+	 * @param bound One of BOUND_LOWER, BOUND_UPPER or BOUND_EXACT
+	 */
+	public void store(long key, int move, int score, int depth, int bound) {
+		int bucket = (int) key & bucketMask;
+		int currentAge = age;
+
+		int replace = bucket;
+		int lowestValue = Integer.MAX_VALUE;
+		for(int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+			long entry = data[i];
+
+			if((keys[i] ^ entry) == key) {
+				// Keep the old best move if this result has none
+				if(move == Move.NONE) move = getMove(entry);
+
+				// Keep a deeper result for the same position from the current search
+				if(entry != MISS && getAge(entry) == currentAge && getDepth(entry) > depth && bound != BOUND_EXACT)
+					return;
+
+				replace = i;
+				break;
+			}
+
+			int value = (entry == MISS) ? Integer.MIN_VALUE : replacementValue(entry, currentAge);
+			if(value < lowestValue) {
+				lowestValue = value;
+				replace = i;
+			}
+		}
+
+		long entry = pack(move, score, depth, bound, currentAge);
+		data[replace] = entry;
+		keys[replace] = key ^ entry;
+	}
+
+	/**
+	 * @returns The permille of sampled entries filled by the current search
+	 */
+	public int hashfull() {
+		int sample = Math.min(1000, data.length);
+		int filled = 0;
+		for(int i = 0; i < sample; i++) {
+			if(data[i] != MISS && getAge(data[i]) == age) filled++;
+		}
+		return filled * 1000 / sample;
+	}
+
+	/**
+	 * @returns The number of entries the table holds
+	 */
+	public int capacity() {
+		return data.length;
+	}
+
+	public static int getMove(long entry) {
+		return (int) (entry & MOVE_MASK);
+	}
+
+	public static int getScore(long entry) {
+		return (int) ((entry >>> SCORE_SHIFT) & 0xFFFF) - SCORE_OFFSET;
+	}
+
+	public static int getDepth(long entry) {
+		return (int) ((entry >>> DEPTH_SHIFT) & 0xFF);
+	}
+
+	public static int getBound(long entry) {
+		return (int) ((entry >>> BOUND_SHIFT) & 0x3);
+	}
+
+	private static int getAge(long entry) {
+		return (int) ((entry >>> AGE_SHIFT) & AGE_MASK);
+	}
+
+	/**
+	 * @returns How valuable an entry is to keep: its depth, less a penalty for each search since it was stored
+	 */
+	private static int replacementValue(long entry, int currentAge) {
+		int searchesOld = (currentAge - getAge(entry)) & AGE_MASK;
+		return getDepth(entry) - AGE_PENALTY * searchesOld;
+	}
+
+	private static long pack(int move, int score, int depth, int bound, int age) {
+		return (move & MOVE_MASK) |
+			((long) ((score + SCORE_OFFSET) & 0xFFFF) << SCORE_SHIFT) |
+			((long) Math.max(0, Math.min(depth, 0xFF)) << DEPTH_SHIFT) |
+			((long) bound << BOUND_SHIFT) |
+			((long) age << AGE_SHIFT);
+	}
+
+}
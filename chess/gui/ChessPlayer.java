@@ -275,8 +275,7 @@ public class ChessPlayer implements Game.GameEventListener, ActionListener, Mous
 					spot.getPiece().getColor() == game.getTurnColor();
 		} else {
 			return selectedSpot == spotPanel ||
-					selectedSpot.getSpot().getPiece()
-					.getPossibleMoves().contains(spot);
+					game.getStatus(game.getTurnColor()).hasLegalMove(selectedSpot.getSpot().getSquare(), spot.getSquare());
 		}
 	}
 
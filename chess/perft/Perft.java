@@ -0,0 +1,126 @@
+package chess.perft;
+
+import chess.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Perft: Counts the move sequences of a given length from a starting position,
+ * for validating and benchmarking move generation
+ *
+ * Usage: java chess.perft.Perft [standard|custom] <depth> [threads]
+ *
+ * Prints the count below each root move (divide output), followed by
+ * the total node count and nodes per second. Root moves are split
+ * across a fork-join pool, each searching its own copy of the game.
+ */
+public class Perft {
+
+	/**
+	 * @returns The number of legal move sequences of the given length
+	 * for the side to move in the given game
+	 */
+	public static long perft(Game game, int depth) {
+		MoveList[] moveLists = new MoveList[depth + 1];
+		for(int i = 0; i <= depth; i++) {
+			moveLists[i] = new MoveList();
+		}
+		return perft(game, depth, moveLists);
+	}
+
+	/**
+	 * @param moveLists One reusable move list per remaining depth
+	 */
+	private static long perft(Game game, int depth, MoveList[] moveLists) {
+		if(depth == 0) return 1;
+
+		MoveList moves = moveLists[depth];
+		moves.clear();
+		game.generateLegalMoves(game.getTurnColor(), moves);
+
+		// The moves at the last level are counted without being made
+		if(depth == 1) return moves.size();
+
+		long nodes = 0;
+		for(int i = 0; i < moves.size(); i++) {
+			game.makeMove(moves.get(i));
+			nodes += perft(game, depth - 1, moveLists);
+			game.unmakeMove();
+		}
+		return nodes;
+	}
+
+	/**
+	 * Counts the move sequences below each root move, splitting root moves across threads
+	 * @param rootMoves Filled with the legal root moves of the game
+	 * @returns The number of sequences of the given length that start with each root move
+	 */
+	public static long[] divide(Game game, MoveList rootMoves, int depth, int threads)
+			throws InterruptedException, ExecutionException {
+		rootMoves.clear();
+		game.generateLegalMoves(game.getTurnColor(), rootMoves);
+
+		long[] counts = new long[rootMoves.size()];
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			List<Future<Long>> results = new ArrayList<Future<Long>>();
+			for(int i = 0; i < rootMoves.size(); i++) {
+				int move = rootMoves.get(i);
+
+				// Copy the game before handing it to the pool, since copying reads the shared game
+				Game copy = game.copy();
+				results.add(pool.submit(() -> {
+					copy.makeMove(move);
+					return perft(copy, depth - 1);
+				}));
+			}
+
+			for(int i = 0; i < counts.length; i++) {
+				counts[i] = results.get(i).get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		return counts;
+	}
+
+	public static void main(String[] args) throws Exception {
+		if(args.length < 2) {
+			System.err.println("Usage: java chess.perft.Perft [standard|custom] <depth> [threads]");
+			System.exit(1);
+		}
+
+		Chess.useCustomPieces(args[0].equals("custom"));
+		int depth = Integer.parseInt(args[1]);
+		if(depth < 1) {
+			System.err.println("Depth must be at least 1");
+			System.exit(1);
+		}
+		int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		Game game = new Game();
+		game.startGame();
+
+		long startTime = System.nanoTime();
+		MoveList rootMoves = new MoveList();
+		long[] counts = divide(game, rootMoves, depth, threads);
+		long elapsed = System.nanoTime() - startTime;
+
+		long nodes = 0;
+		for(int i = 0; i < counts.length; i++) {
+			System.out.println(Move.toString(rootMoves.get(i)) + ": " + counts[i]);
+			nodes += counts[i];
+		}
+
+		double seconds = elapsed / 1e9;
+		System.out.println();
+		System.out.println("Nodes: " + nodes);
+		System.out.println("Time: " + String.format("%.3f", seconds) + " s");
+		System.out.println("Nodes/sec: " + (long) (nodes / seconds));
+	}
+
+}
@@ -0,0 +1,135 @@
+package chess.pgn;
+
+import chess.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PgnGame: A class representing one recorded game, its tag pairs,
+ * the moves played from its starting position and its result
+ */
+public class PgnGame {
+
+	public static final String WHITE_WINS = "1-0";
+	public static final String BLACK_WINS = "0-1";
+	public static final String DRAW = "1/2-1/2";
+	public static final String UNKNOWN_RESULT = "*";
+
+	private static final int INITIAL_MOVES_CAPACITY = 128;
+
+	// The tag pairs, in the order they were read or set
+	private final Map<String, String> tags = new LinkedHashMap<String, String>();
+
+	private int[] moves = new int[INITIAL_MOVES_CAPACITY];
+	private int moveCount;
+
+	private String result = UNKNOWN_RESULT;
+
+	/**
+	 * @returns A record of the moves made in the given game so far, from the position it started in
+	 * The game is taken back to its start and replayed to find that position, and is left as it was.
+	 */
+	public static PgnGame fromGame(Game game) {
+		PgnGame pgnGame = new PgnGame();
+		int moveCount = game.getMoveCount();
+		for(int i = 0; i < moveCount; i++) {
+			pgnGame.addMove(game.getMove(i));
+		}
+
+		for(int i = 0; i < moveCount; i++) {
+			game.unmakeMove();
+		}
+		String startingFen = Fen.toFen(game);
+		for(int i = 0; i < moveCount; i++) {
+			game.makeMove(pgnGame.getMove(i));
+		}
+
+		if(!startingFen.equals(Fen.STANDARD_START)) pgnGame.setStartingFen(startingFen);
+		return pgnGame;
+	}
+
+	/**
+	 * @returns The game's tag pairs, in order
+	 */
+	public Map<String, String> getTags() {
+		return tags;
+	}
+
+	/**
+	 * @returns The value of the given tag, or null if the game doesn't have it
+	 */
+	public String getTag(String name) {
+		return tags.get(name);
+	}
+
+	public void setTag(String name, String value) {
+		tags.put(name, value);
+	}
+
+	/**
+	 * @returns The FEN of the position the game starts in, the standard
+	 * starting position unless the game has a FEN tag
+	 */
+	public String getStartingFen() {
+		String fen = tags.get("FEN");
+		return (fen != null) ? fen : Fen.STANDARD_START;
+	}
+
+	public void setStartingFen(String fen) {
+		tags.put("SetUp", "1");
+		tags.put("FEN", fen);
+	}
+
+	public String getResult() {
+		return result;
+	}
+
+	/**
+	 * Sets the result, one of WHITE_WINS, BLACK_WINS, DRAW or UNKNOWN_RESULT
+	 */
+	public void setResult(String result) {
+		this.result = result;
+		tags.put("Result", result);
+	}
+
+	public int getMoveCount() {
+		return moveCount;
+	}
+
+	/**
+	 * @returns The move made at the given index, the first move being 0
+	 */
+	public int getMove(int index) {
+		if(index < 0 || index >= moveCount) throw new IndexOutOfBoundsException("No move " + index);
+		return moves[index];
+	}
+
+	public void addMove(int move) {
+		if(moveCount == moves.length) moves = Arrays.copyOf(moves, 2 * moveCount);
+		moves[moveCount++] = move;
+	}
+
+	/**
+	 * Removes all tags and moves, so the game can be reused for reading another
+	 */
+	public void clear() {
+		tags.clear();
+		moveCount = 0;
+		result = UNKNOWN_RESULT;
+	}
+
+	/**
+	 * @returns A started game in the starting position, with every move made
+	 * @throws Chess.ChessError If the starting position is not valid FEN
+	 */
+	public Game toGame() {
+		Game game = Fen.createGame(getStartingFen());
+		for(int i = 0; i < moveCount; i++) {
+			game.makeMove(moves[i]);
+		}
+		return game;
+	}
+
+}
@@ -0,0 +1,359 @@
+package chess.pgn;
+
+import chess.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * PgnReader: Reads games in Portable Game Notation from a channel, one at a time
+ *
+ * The input is read through a fixed-size buffer, so files of any size can be
+ * read in bounded memory. Each move is checked against the legal moves of a
+ * Position kept up to date as the game is read. Comments, variations and
+ * annotation glyphs are skipped. Games can be skipped without being parsed,
+ * by scanning for where the next one starts.
+ *
+ * Usage: java chess.pgn.PgnReader <file> [first game]
+ */
+public class PgnReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int EOF = -1;
+
+	// Characters that end a move or other movetext token
+	private static final String DELIMITERS = "{};()[";
+
+	private final ReadableByteChannel channel;
+	private final byte[] bytes = new byte[BUFFER_SIZE];
+	private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+	// The index of the next unread byte in the buffer, and the number of bytes in it
+	private int offset;
+	private int limit;
+
+	// Whether the next unread byte starts a line
+	private boolean atLineStart = true;
+
+	// The index in the input of the game the next call to next() or skip() reads
+	private int gameIndex;
+
+	// The position of the game being read and its current token
+	private final Position position = new Position();
+	private final StringBuilder token = new StringBuilder();
+
+	public PgnReader(ReadableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * @returns A reader of the games in the given file
+	 */
+	public static PgnReader open(Path path) throws IOException {
+		return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+	}
+
+	/**
+	 * @returns The index of the game the next call to next() or skip() reads, the first game being 0
+	 */
+	public int getGameIndex() {
+		return gameIndex;
+	}
+
+	/**
+	 * @returns The next game, or null if there are no more
+	 * @throws Chess.ChessError If the game has an illegal move or an invalid FEN tag.
+	 * The reader can carry on with the next game.
+	 */
+	public PgnGame next() throws IOException {
+		PgnGame game = new PgnGame();
+		return next(game) ? game : null;
+	}
+
+	/**
+	 * Reads the next game into the given one, replacing whatever it held
+	 * @returns False if there are no more games
+	 * @throws Chess.ChessError If the game has an illegal move or an invalid FEN tag.
+	 * The reader can carry on with the next game.
+	 */
+	public boolean next(PgnGame game) throws IOException {
+		game.clear();
+		skipWhitespace();
+		if(peek() == EOF) return false;
+		int index = gameIndex++;
+
+		// Tag pairs
+		while(peek() == '[') {
+			readTag(game);
+			skipWhitespace();
+		}
+
+		try {
+			Fen.parse(game.getStartingFen(), position);
+		} catch(Chess.ChessError e) {
+			skipRestOfGame(false);
+			throw new Chess.ChessError("Game " + index + ": " + e.getMessage());
+		}
+
+		// Movetext, up to the result or the start of the next game
+		while(true) {
+			skipWhitespace();
+			int c = peek();
+			if(c == EOF || (c == '[' && atLineStart)) return true;
+
+			if(c == '{') {
+				skipPast('}');
+			} else if(c == ';' || (c == '%' && atLineStart)) {
+				skipPast('\n');
+			} else if(c == '(') {
+				skipVariation();
+			} else if(DELIMITERS.indexOf(c) >= 0) {
+				read();
+			} else {
+				readToken();
+				if(isResult(token)) {
+					game.setResult(token.toString());
+					return true;
+				}
+				if(token.length() == 0 || token.charAt(0) == '$') continue;
+
+				int move = San.parse(position, token);
+				if(move == Move.NONE) {
+					String illegalMove = token.toString();
+					skipRestOfGame(true);
+					throw new Chess.ChessError("Game " + index + ": illegal move " + illegalMove);
+				}
+				position.makeMove(move);
+				game.addMove(move);
+			}
+		} // END WHILE
+	}
+
+	/**
+	 * Skips the next game without parsing it
+	 * @returns False if there are no more games
+	 */
+	public boolean skip() throws IOException {
+		skipWhitespace();
+		if(peek() == EOF) return false;
+		gameIndex++;
+
+		skipRestOfGame(false);
+		return true;
+	}
+
+	/**
+	 * Skips the rest of the game being read, up to where the next one starts
+	 * @param inMovetext Whether the game's movetext has begun
+	 */
+	private void skipRestOfGame(boolean inMovetext) throws IOException {
+		// The game ends where a line starts with a tag after its movetext has begun
+		boolean inComment = false;
+		int c;
+		while((c = peek()) != EOF) {
+			if(atLineStart && !inComment) {
+				if(c == '[' && inMovetext) return;
+				if(c == '[' || c == '%') {
+					skipPast('\n');
+					continue;
+				}
+			}
+			read();
+
+			if(inComment) {
+				if(c == '}') inComment = false;
+			} else if(c == '{') {
+				inComment = true;
+				inMovetext = true;
+			} else if(c == ';') {
+				skipPast('\n');
+			} else if(!isWhitespace(c)) {
+				inMovetext = true;
+			}
+		} // END WHILE
+	}
+
+	/**
+	 * Skips games until the one with the given index is next
+	 * @returns False if the input has no game with that index
+	 */
+	public boolean skipTo(int index) throws IOException {
+		while(gameIndex < index) {
+			if(!skip()) return false;
+		}
+		skipWhitespace();
+		return gameIndex == index && peek() != EOF;
+	}
+
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Reads a tag pair such as [Event "Casual game"] into the game
+	 */
+	private void readTag(PgnGame game) throws IOException {
+		read();
+
+		token.setLength(0);
+		int c;
+		while((c = peek()) != EOF && c != '"' && c != ']') {
+			read();
+			if(!isWhitespace(c)) token.append((char) c);
+		}
+		String name = token.toString();
+
+		token.setLength(0);
+		if(peek() == '"') {
+			read();
+			while((c = read()) != EOF && c != '"') {
+				if(c == '\\') c = read();
+				if(c != EOF) token.append((char) c);
+			}
+		}
+		skipPast(']');
+
+		if(name.equals("Result")) game.setResult(token.toString());
+		else game.setTag(name, token.toString());
+	}
+
+	/**
+	 * Reads the next movetext token, leaving out any move number before it
+	 */
+	private void readToken() throws IOException {
+		token.setLength(0);
+		int c;
+		while((c = peek()) != EOF && !isWhitespace(c) && DELIMITERS.indexOf(c) < 0) {
+			token.append((char) read());
+		}
+
+		int start = 0;
+		while(start < token.length() && Character.isDigit(token.charAt(start))) start++;
+		if(start > 0 && start < token.length() && token.charAt(start) == '.') {
+			while(start < token.length() && token.charAt(start) == '.') start++;
+			token.delete(0, start);
+		}
+	}
+
+	/**
+	 * Skips a variation, along with any variations and comments inside it
+	 */
+	private void skipVariation() throws IOException {
+		int depth = 0;
+		int c;
+		while((c = read()) != EOF) {
+			if(c == '(') depth++;
+			else if(c == ')' && --depth == 0) return;
+			else if(c == '{') skipPast('}');
+			else if(c == ';') skipPast('\n');
+		}
+	}
+
+	private static boolean isResult(CharSequence token) {
+		return contentEquals(token, PgnGame.WHITE_WINS) || contentEquals(token, PgnGame.BLACK_WINS) ||
+			contentEquals(token, PgnGame.DRAW) || contentEquals(token, PgnGame.UNKNOWN_RESULT);
+	}
+
+	private static boolean contentEquals(CharSequence token, String string) {
+		if(token.length() != string.length()) return false;
+		for(int i = 0; i < string.length(); i++) {
+			if(token.charAt(i) != string.charAt(i)) return false;
+		}
+		return true;
+	}
+
+	private static boolean isWhitespace(int c) {
+		return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+	}
+
+	private void skipWhitespace() throws IOException {
+		while(isWhitespace(peek())) read();
+	}
+
+	/**
+	 * Reads up to and including the next occurrence of the given character
+	 */
+	private void skipPast(char end) throws IOException {
+		int c;
+		while((c = read()) != EOF && c != end);
+	}
+
+	/**
+	 * @returns The next byte, without reading it, or EOF at the end of the input
+	 */
+	private int peek() throws IOException {
+		if(offset == limit && !fill()) return EOF;
+		return bytes[offset] & 0xFF;
+	}
+
+	/**
+	 * @returns The next byte, or EOF at the end of the input
+	 */
+	private int read() throws IOException {
+		if(offset == limit && !fill()) return EOF;
+		int c = bytes[offset++] & 0xFF;
+		atLineStart = (c == '\n');
+		return c;
+	}
+
+	/**
+	 * Refills the buffer from the channel
+	 * @returns False if the channel has no more bytes
+	 */
+	private boolean fill() throws IOException {
+		buffer.clear();
+		int read;
+		do {
+			read = channel.read(buffer);
+		} while(read == 0);
+
+		offset = 0;
+		limit = Math.max(read, 0);
+		return read > 0;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1) {
+			System.err.println("Usage: java chess.pgn.PgnReader <file> [first game]");
+			System.exit(1);
+		}
+
+		try(PgnReader reader = PgnReader.open(Paths.get(args[0]))) {
+			long start = System.nanoTime();
+			if(args.length > 1 && !reader.skipTo(Integer.parseInt(args[1]))) {
+				System.err.println("The file has fewer games than that");
+				System.exit(1);
+			}
+
+			PgnGame game = new PgnGame();
+			long games = 0;
+			long moves = 0;
+			long skipped = 0;
+			while(true) {
+				// A game with an illegal move or bad FEN is skipped, and reading carries on after it
+				try {
+					if(!reader.next(game)) break;
+				} catch(Chess.ChessError e) {
+					skipped++;
+					continue;
+				}
+				games++;
+				moves += game.getMoveCount();
+			} // END WHILE
+
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.println("Games: " + games);
+			System.out.println("Skipped: " + skipped);
+			System.out.println("Moves: " + moves);
+			System.out.println("Time: " + String.format("%.3f", seconds) + " s");
+			System.out.println("Games/sec: " + (long) (games / seconds));
+		}
+	}
+
+}
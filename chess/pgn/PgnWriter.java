@@ -0,0 +1,153 @@
+package chess.pgn;
+
+import chess.*;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * PgnWriter: Writes games in Portable Game Notation to a channel
+ *
+ * Each game is written as its tag pairs, starting with the Seven Tag Roster,
+ * followed by its moves in SAN, wrapped to lines of at most 80 characters,
+ * and its result. Output goes through a fixed-size buffer, which is written
+ * to the channel whenever it fills up, and on flush() and close().
+ */
+public class PgnWriter implements Closeable, Flushable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int LINE_LENGTH = 80;
+
+	// The tags every game has, in the order they come first, and their values if unknown
+	private static final String[] SEVEN_TAG_ROSTER = { "Event", "Site", "Date", "Round", "White", "Black", "Result" };
+	private static final String[] UNKNOWN_VALUES = { "?", "?", "????.??.??", "?", "?", "?", PgnGame.UNKNOWN_RESULT };
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+	// The length of the line being written
+	private int column;
+
+	// The position of the game being written
+	private final Position position = new Position();
+
+	public PgnWriter(WritableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * @returns A writer to the given file, replacing whatever it held
+	 */
+	public static PgnWriter open(Path path) throws IOException {
+		return new PgnWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+			StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+	}
+
+	/**
+	 * Writes the moves made in the given game so far, with an unknown result
+	 */
+	public void write(Game game) throws IOException {
+		write(PgnGame.fromGame(game));
+	}
+
+	/**
+	 * Writes a game, followed by a blank line
+	 * @throws Chess.ChessError If the game's starting position is not valid FEN
+	 */
+	public void write(PgnGame game) throws IOException {
+		Map<String, String> tags = game.getTags();
+		for(int i = 0; i < SEVEN_TAG_ROSTER.length; i++) {
+			String value = SEVEN_TAG_ROSTER[i].equals("Result") ? game.getResult() : tags.get(SEVEN_TAG_ROSTER[i]);
+			writeTag(SEVEN_TAG_ROSTER[i], (value != null) ? value : UNKNOWN_VALUES[i]);
+		}
+		for(Map.Entry<String, String> tag : tags.entrySet()) {
+			if(!isInSevenTagRoster(tag.getKey())) writeTag(tag.getKey(), tag.getValue());
+		}
+		newLine();
+
+		Fen.parse(game.getStartingFen(), position);
+		int moveNumber = 1;
+		for(int i = 0; i < game.getMoveCount(); i++) {
+			int move = game.getMove(i);
+			if(position.getSideToMove() == Position.WHITE) writeToken(moveNumber + ".");
+			else if(i == 0) writeToken(moveNumber + "...");
+
+			writeToken(San.toSan(position, move));
+			if(position.getSideToMove() == Position.BLACK) moveNumber++;
+			position.makeMove(move);
+		}
+		writeToken(game.getResult());
+		newLine();
+		newLine();
+	}
+
+	public void flush() throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	public void close() throws IOException {
+		flush();
+		channel.close();
+	}
+
+	private void writeTag(String name, String value) throws IOException {
+		write('[');
+		write(name);
+		write(" \"");
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if(c == '"' || c == '\\') write('\\');
+			write(c);
+		}
+		write("\"]");
+		newLine();
+	}
+
+	/**
+	 * Writes a movetext token, starting a new line if it wouldn't fit on this one
+	 */
+	private void writeToken(String token) throws IOException {
+		if(column > 0 && column + 1 + token.length() > LINE_LENGTH) newLine();
+		else if(column > 0) write(' ');
+		write(token);
+	}
+
+	private void newLine() throws IOException {
+		write('\n');
+		column = 0;
+	}
+
+	private void write(String string) throws IOException {
+		for(int i = 0; i < string.length(); i++) {
+			write(string.charAt(i));
+		}
+	}
+
+	/**
+	 * Writes a character in ISO 8859-1, as PGN asks, or "?" if it has none there
+	 */
+	private void write(char c) throws IOException {
+		if(!buffer.hasRemaining()) flush();
+		buffer.put((byte) ((c <= 0xFF) ? c : '?'));
+		column++;
+	}
+
+	private static boolean isInSevenTagRoster(String name) {
+		for(String rosterName : SEVEN_TAG_ROSTER) {
+			if(rosterName.equals(name)) return true;
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,116 @@
+package chess.pgn;
+
+import chess.*;
+
+/**
+ * San: A class for naming moves in Standard Algebraic Notation
+ *
+ * A move is named by its piece letter, left out for pawns, as much of the
+ * square it leaves as is needed to tell it apart from other moves of the
+ * same piece type, an "x" if it captures, and the square it goes to, with
+ * "+" added for check and "#" for checkmate, e.g. "Nbd7", "exd5" or "Mxa8#".
+ * The MegaRook and FlipFlopper use the letters M and F, as in FEN.
+ */
+public class San {
+
+	// Characters that may follow a move without being part of it
+	private static final String SUFFIXES = "+#!?";
+
+	/**
+	 * @returns The SAN name of a legal move in the given position
+	 */
+	public static String toSan(Position position, int move) {
+		StringBuilder san = new StringBuilder(8);
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		int movedPiece = Move.getMovedPiece(move);
+
+		if(Position.typeOf(movedPiece) == Position.PAWN) {
+			if(Move.isCapture(move)) san.append(file(from)).append('x');
+		} else {
+			san.append(Character.toUpperCase(Fen.letter(movedPiece)));
+
+			// Name as little of the square it leaves as tells it apart
+			boolean ambiguous = false;
+			boolean sameFile = false;
+			boolean sameRank = false;
+			long others = position.getPieces(Position.colorOf(movedPiece), Position.typeOf(movedPiece)) & ~Bitboards.bit(from);
+			for(; others != 0; others &= others - 1) {
+				int otherFrom = Long.numberOfTrailingZeros(others);
+				if(!Bitboards.contains(position.getLegalMoveTargets(movedPiece, otherFrom, position.hasOddParity(otherFrom)), to)) continue;
+
+				ambiguous = true;
+				if(Bitboards.col(otherFrom) == Bitboards.col(from)) sameFile = true;
+				if(Bitboards.row(otherFrom) == Bitboards.row(from)) sameRank = true;
+			}
+			if(ambiguous && (!sameFile || sameRank)) san.append(file(from));
+			if(ambiguous && sameFile) san.append(rank(from));
+
+			if(Move.isCapture(move)) san.append('x');
+		}
+		san.append(Bitboards.squareName(to));
+
+		boolean capturedOddParity = position.hasOddParity(to);
+		position.makeMove(move);
+		int opponent = position.getSideToMove();
+		if(position.isInCheck(opponent)) san.append(position.hasLegalMoves(opponent) ? '+' : '#');
+		position.unmakeMove(move, capturedOddParity);
+
+		return san.toString();
+	}
+
+	/**
+	 * @returns The legal move of the side to move named in SAN, or Move.NONE if no move
+	 * or more than one matches the name. Check and annotation marks are ignored.
+	 */
+	public static int parse(Position position, CharSequence san) {
+		int length = san.length();
+		while(length > 0 && SUFFIXES.indexOf(san.charAt(length - 1)) >= 0) length--;
+
+		if(length < 2) return Move.NONE;
+		int to = Bitboards.parseSquare(san, length - 2);
+		if(to < 0) return Move.NONE;
+
+		int index = 0;
+		int type = Position.PAWN;
+		if(Character.isUpperCase(san.charAt(0))) {
+			int pieceCode = Fen.pieceCode(san.charAt(0));
+			if(pieceCode == Position.NO_PIECE) return Move.NONE;
+			type = Position.typeOf(pieceCode);
+			index++;
+		}
+
+		// Whatever is left between the piece and its destination narrows down where it comes from
+		int fromCol = -1;
+		int fromRow = -1;
+		for(; index < length - 2; index++) {
+			char c = san.charAt(index);
+			if(c >= 'a' && c < 'a' + Chess.NUM_COLS) fromCol = c - 'a';
+			else if(c >= '1' && c < '1' + Chess.NUM_ROWS) fromRow = c - '1';
+			else if(c != 'x' && c != ':' && c != '-') return Move.NONE;
+		}
+
+		int color = position.getSideToMove();
+		int pieceCode = Position.pieceCode(color, type);
+		int found = Move.NONE;
+		for(long pieces = position.getPieces(color, type); pieces != 0; pieces &= pieces - 1) {
+			int from = Long.numberOfTrailingZeros(pieces);
+			if(fromCol >= 0 && Bitboards.col(from) != fromCol) continue;
+			if(fromRow >= 0 && Bitboards.row(from) != fromRow) continue;
+			if(!Bitboards.contains(position.getLegalMoveTargets(pieceCode, from, position.hasOddParity(from)), to)) continue;
+
+			if(found != Move.NONE) return Move.NONE;
+			found = Move.create(from, to, pieceCode, position.getPieceAt(to));
+		}
+		return found;
+	}
+
+	private static char file(int square) {
+		return (char) ('a' + Bitboards.col(square));
+	}
+
+	private static char rank(int square) {
+		return (char) ('1' + Bitboards.row(square));
+	}
+
+}
@@ -0,0 +1,74 @@
+package chess.selfplay;
+
+import chess.*;
+import chess.engine.*;
+
+import java.util.SplittableRandom;
+
+/**
+ * EnginePolicy: Chooses the best move found by a search of a fixed depth
+ *
+ * Searches are deterministic, so the policy's first few moves of each game are
+ * chosen at random, from the game's seed, and games of a batch open differently.
+ * The transposition table is cleared before each game, so games don't depend
+ * on the ones the same thread played before.
+ */
+public class EnginePolicy implements MovePolicy {
+
+	/**
+	 * Small, since each thread has a policy and so a table for each side,
+	 * and shallow searches fill little of it
+	 */
+	public static final int DEFAULT_TABLE_SIZE_MB = 2;
+
+	public static final int DEFAULT_RANDOM_MOVES = 2;
+
+	private final int depth;
+	private final TranspositionTable table;
+
+	// The number of moves at the start of each game chosen at random instead of searched
+	private final int randomMoves;
+	private SplittableRandom random = new SplittableRandom();
+
+	// The game being played, its search, made when its first move is searched,
+	// and the number of moves chosen in it so far
+	private Game game;
+	private Search search;
+	private int movesChosen;
+
+	public EnginePolicy(int depth) {
+		this(depth, DEFAULT_TABLE_SIZE_MB, DEFAULT_RANDOM_MOVES);
+	}
+
+	/**
+	 * @param randomMoves The number of moves at the start of each game to choose at random
+	 */
+	public EnginePolicy(int depth, int tableSizeMb, int randomMoves) {
+		this.depth = depth;
+		this.table = new TranspositionTable(tableSizeMb);
+		this.randomMoves = randomMoves;
+	}
+
+	public void newGame(long seed) {
+		table.clear();
+		random = new SplittableRandom(seed);
+		game = null;
+		search = null;
+		movesChosen = 0;
+	}
+
+	public int chooseMove(Game game, MoveList legalMoves) {
+		if(movesChosen++ < randomMoves) return legalMoves.get(random.nextInt(legalMoves.size()));
+
+		if(game != this.game) {
+			this.game = game;
+			search = new Search(game, table);
+		}
+		return search.search(SearchLimits.depth(depth)).getBestMove();
+	}
+
+	public String toString() {
+		return "engine at depth " + depth;
+	}
+
+}
@@ -0,0 +1,26 @@
+package chess.selfplay;
+
+import chess.*;
+
+/**
+ * MovePolicy: Chooses the moves of one side in self-play games
+ *
+ * Each worker thread of a SelfPlay gets its own policies, so a policy
+ * is only ever used by one thread and can keep state between moves.
+ */
+public interface MovePolicy {
+
+	/**
+	 * Called before each game, with a seed for any random choices made in it,
+	 * so games can be played again the same way whichever thread plays them
+	 */
+	void newGame(long seed);
+
+	/**
+	 * @returns The move to make, one of the given legal moves of the side to move
+	 * @param game The game, which must be left as it was
+	 * @param legalMoves The legal moves of the side to move, of which there is at least one
+	 */
+	int chooseMove(Game game, MoveList legalMoves);
+
+}
@@ -0,0 +1,26 @@
+package chess.selfplay;
+
+import chess.*;
+
+import java.util.SplittableRandom;
+
+/**
+ * RandomPolicy: Chooses uniformly at random among the legal moves
+ */
+public class RandomPolicy implements MovePolicy {
+
+	private SplittableRandom random = new SplittableRandom();
+
+	public void newGame(long seed) {
+		random = new SplittableRandom(seed);
+	}
+
+	public int chooseMove(Game game, MoveList legalMoves) {
+		return legalMoves.get(random.nextInt(legalMoves.size()));
+	}
+
+	public String toString() {
+		return "random";
+	}
+
+}
@@ -0,0 +1,188 @@
+package chess.selfplay;
+
+import chess.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * SelfPlay: Plays batches of games between two move policies on a pool of threads,
+ * without any output, and totals their outcomes and lengths
+ *
+ * Game i is played with seeds derived from the batch seed and i alone, so a
+ * batch plays the same games however many threads it is split across.
+ * Games reaching the move limit are counted separately from stalemates.
+ *
+ * Usage: java chess.selfplay.SelfPlay [standard|custom] <games> [threads] [white policy] [black policy]
+ * where a policy is "random" (the default) or "engine:<depth>"
+ */
+public class SelfPlay {
+
+	/**
+	 * The ways a game can end
+	 */
+	public static enum Outcome {
+		WHITE_WINS, BLACK_WINS, STALEMATE, MOVE_LIMIT;
+
+		public String toString() {
+			switch(this) {
+				case WHITE_WINS:
+					return "White wins";
+				case BLACK_WINS:
+					return "Black wins";
+				case STALEMATE:
+					return "Stalemate";
+				case MOVE_LIMIT:
+					return "Move limit";
+			}
+			return null;
+		}
+	}
+
+	public static final int DEFAULT_MAX_PLIES = 600;
+
+	// Spreads the seeds of consecutive games apart
+	private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+	private final Supplier<MovePolicy> whitePolicies;
+	private final Supplier<MovePolicy> blackPolicies;
+	private int threads = 1;
+	private int maxPlies = DEFAULT_MAX_PLIES;
+	private String startingFen = Fen.STANDARD_START;
+	private long seed;
+
+	/**
+	 * @param whitePolicies Makes the policy for White's moves, once for each thread
+	 * @param blackPolicies Makes the policy for Black's moves, once for each thread
+	 */
+	public SelfPlay(Supplier<MovePolicy> whitePolicies, Supplier<MovePolicy> blackPolicies) {
+		this.whitePolicies = whitePolicies;
+		this.blackPolicies = blackPolicies;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the number of plies after which a game is stopped and counted as reaching the move limit
+	 */
+	public void setMaxPlies(int maxPlies) {
+		this.maxPlies = maxPlies;
+	}
+
+	/**
+	 * Sets the position every game starts from, such as Fen.CUSTOM_START
+	 */
+	public void setStartingFen(String startingFen) {
+		this.startingFen = startingFen;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Plays the given number of games
+	 * @returns Their outcomes and lengths, and how long they took
+	 */
+	public SelfPlayStatistics play(int games) throws InterruptedException, ExecutionException {
+		long startTime = System.nanoTime();
+		AtomicInteger nextGame = new AtomicInteger();
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		SelfPlayStatistics statistics = new SelfPlayStatistics();
+		try {
+			List<Future<SelfPlayStatistics>> results = new ArrayList<Future<SelfPlayStatistics>>();
+			for(int i = 0; i < threads; i++) {
+				results.add(pool.submit(() -> {
+					MovePolicy white = whitePolicies.get();
+					MovePolicy black = blackPolicies.get();
+					GameStatus status = new GameStatus();
+					SelfPlayStatistics workerStatistics = new SelfPlayStatistics();
+
+					int index;
+					while((index = nextGame.getAndIncrement()) < games) {
+						long gameSeed = seed + index * SEED_INCREMENT;
+						white.newGame(gameSeed);
+						black.newGame(~gameSeed);
+
+						Game game = Fen.createGame(startingFen);
+						Outcome outcome = play(game, white, black, maxPlies, status);
+						workerStatistics.add(outcome, game.getMoveCount());
+					}
+					return workerStatistics;
+				}));
+			}
+
+			for(Future<SelfPlayStatistics> result : results) {
+				statistics.add(result.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		statistics.setElapsedNanos(System.nanoTime() - startTime);
+		return statistics;
+	}
+
+	/**
+	 * Plays a game to its end, or until it reaches the given number of plies
+	 * @param status Filled with the status of each position in turn
+	 * @returns How the game ended
+	 */
+	public static Outcome play(Game game, MovePolicy white, MovePolicy black, int maxPlies, GameStatus status) {
+		Position position = game.getBoard().getPosition();
+
+		for(int ply = 0; ; ply++) {
+			int color = position.getSideToMove();
+			status.compute(position, color);
+
+			if(status.isCheckmate()) return (color == Position.WHITE) ? Outcome.BLACK_WINS : Outcome.WHITE_WINS;
+			if(status.isStalemate()) return Outcome.STALEMATE;
+
+			if(ply == maxPlies) return Outcome.MOVE_LIMIT;
+
+			MovePolicy policy = (color == Position.WHITE) ? white : black;
+			game.makeMove(policy.chooseMove(game, status.getLegalMoves()));
+		} // END FOR
+	}
+
+	/**
+	 * @returns A maker of the policy with the given name, "random" or "engine:<depth>"
+	 */
+	public static Supplier<MovePolicy> parsePolicy(String name) {
+		if(name.equals("random")) return () -> new RandomPolicy();
+		if(name.startsWith("engine:")) {
+			int depth = Integer.parseInt(name.substring("engine:".length()));
+			return () -> new EnginePolicy(depth);
+		}
+		throw new IllegalArgumentException("Unknown policy " + name);
+	}
+
+	public static void main(String[] args) throws Exception {
+		if(args.length < 2) {
+			System.err.println("Usage: java chess.selfplay.SelfPlay [standard|custom] <games> [threads] [white policy] [black policy]");
+			System.err.println("Policies are random (the default) or engine:<depth>");
+			System.exit(1);
+		}
+
+		int games = Integer.parseInt(args[1]);
+		int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		Supplier<MovePolicy> white = parsePolicy((args.length > 3) ? args[3] : "random");
+		Supplier<MovePolicy> black = parsePolicy((args.length > 4) ? args[4] : "random");
+
+		SelfPlay selfPlay = new SelfPlay(white, black);
+		selfPlay.setThreads(threads);
+		selfPlay.setStartingFen(args[0].equals("custom") ? Fen.CUSTOM_START : Fen.STANDARD_START);
+
+		System.out.println(selfPlay.play(games));
+	}
+
+}
@@ -0,0 +1,113 @@
+package chess.selfplay;
+
+import java.util.Arrays;
+
+/**
+ * SelfPlayStatistics: A class totalling the outcomes and lengths of self-play games
+ *
+ * Each worker thread keeps its own statistics, which are added up once it is done.
+ */
+public class SelfPlayStatistics {
+
+	/**
+	 * The width, in plies, of each bar of the game length histogram
+	 */
+	public static final int LENGTH_BUCKET_SIZE = 20;
+
+	// The number of games with each outcome, indexed by SelfPlay.Outcome ordinal
+	private final long[] outcomes = new long[SelfPlay.Outcome.values().length];
+
+	// The number of games of each length, grouped into buckets of LENGTH_BUCKET_SIZE plies
+	private long[] lengths = new long[0];
+
+	private long games;
+	private long plies;
+	private int shortestGame = Integer.MAX_VALUE;
+	private int longestGame;
+
+	// How long the games took to play, set once they are all done
+	private long elapsedNanos;
+
+	/**
+	 * Counts a game that ended with the given outcome after the given number of plies
+	 */
+	public void add(SelfPlay.Outcome outcome, int length) {
+		outcomes[outcome.ordinal()]++;
+		games++;
+		plies += length;
+		shortestGame = Math.min(shortestGame, length);
+		longestGame = Math.max(longestGame, length);
+
+		int bucket = length / LENGTH_BUCKET_SIZE;
+		if(bucket >= lengths.length) lengths = Arrays.copyOf(lengths, bucket + 1);
+		lengths[bucket]++;
+	}
+
+	/**
+	 * Adds another thread's counts to these
+	 */
+	public void add(SelfPlayStatistics other) {
+		for(int i = 0; i < outcomes.length; i++) {
+			outcomes[i] += other.outcomes[i];
+		}
+		if(other.lengths.length > lengths.length) lengths = Arrays.copyOf(lengths, other.lengths.length);
+		for(int i = 0; i < other.lengths.length; i++) {
+			lengths[i] += other.lengths[i];
+		}
+		games += other.games;
+		plies += other.plies;
+		shortestGame = Math.min(shortestGame, other.shortestGame);
+		longestGame = Math.max(longestGame, other.longestGame);
+	}
+
+	public long getGames() {
+		return games;
+	}
+
+	/**
+	 * @returns The number of games that ended with the given outcome
+	 */
+	public long getCount(SelfPlay.Outcome outcome) {
+		return outcomes[outcome.ordinal()];
+	}
+
+	/**
+	 * @returns The number of games whose length in plies falls in the given bucket,
+	 * from bucket * LENGTH_BUCKET_SIZE up to but not including the next bucket
+	 */
+	public long getLengthCount(int bucket) {
+		return (bucket < lengths.length) ? lengths[bucket] : 0;
+	}
+
+	public double getAverageLength() {
+		return (games == 0) ? 0 : (double) plies / games;
+	}
+
+	public void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public long getGamesPerSecond() {
+		return (elapsedNanos == 0) ? 0 : games * 1000000000L / elapsedNanos;
+	}
+
+	public String toString() {
+		String out = "Games: " + games + "\n";
+		for(SelfPlay.Outcome outcome : SelfPlay.Outcome.values()) {
+			long count = outcomes[outcome.ordinal()];
+			out += outcome + ": " + count + String.format(" (%.1f%%)", (games == 0) ? 0.0 : 100.0 * count / games) + "\n";
+		}
+
+		out += String.format("Length: %.1f plies on average, %d shortest, %d longest\n", getAverageLength(),
+			(games == 0) ? 0 : shortestGame, longestGame);
+		for(int bucket = 0; bucket < lengths.length; bucket++) {
+			if(lengths[bucket] == 0) continue;
+			out += String.format("  %4d-%-4d %d\n", bucket * LENGTH_BUCKET_SIZE, (bucket + 1) * LENGTH_BUCKET_SIZE - 1, lengths[bucket]);
+		}
+
+		out += "Time: " + String.format("%.3f", elapsedNanos / 1e9) + " s\n";
+		out += "Games/sec: " + getGamesPerSecond();
+		return out;
+	}
+
+}
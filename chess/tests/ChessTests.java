@@ -7,7 +7,7 @@ import org.junit.Test;
 
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({PieceTests.class, BoardTests.class, GameTests.class})
+@Suite.SuiteClasses({PieceTests.class, BoardTests.class, GameTests.class, PerftTests.class, TranspositionTableTests.class, SearchTests.class, EvaluatorTests.class, UciTests.class, FenTests.class, PgnTests.class, GameArchiveTests.class, SelfPlayTests.class})
 
 public class ChessTests {
 
@@ -0,0 +1,100 @@
+package chess.tests;
+
+import chess.*;
+import chess.engine.Evaluator;
+import chess.engine.StaticExchange;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class EvaluatorTests {
+	
+	private Game game;
+	
+	public void setUp() {
+		Chess.useCustomPieces(true);
+		game = new Game();
+		game.startGame();
+		Chess.useCustomPieces(false);
+	}
+	
+	@Test
+	public void SymmetricStart() {
+		setUp();
+		
+		Position position = game.getBoard().getPosition();
+		assertEquals(position.getPhase(), PieceSquareTables.MAX_PHASE);
+		assertEquals(position.getMidgameScore(), 0);
+		assertEquals(position.getEndgameScore(), 0);
+		assertEquals(Evaluator.evaluate(position), 0);
+	}
+	
+	@Test
+	public void IncrementalScores() {
+		setUp();
+		
+		Position position = game.getBoard().getPosition();
+		MoveList moves = new MoveList();
+		
+		// Play out a game with several captures, then take it all back
+		// MegaRooks don't capture, since taking the other MegaRook at the start is mate
+		for(int ply = 0; ply < 16; ply++) {
+			moves.clear();
+			game.generateLegalMoves(game.getTurnColor(), moves);
+			int move = moves.get(ply * 7 % moves.size());
+			for(int i = 0; i < moves.size(); i++) {
+				if(Move.isCapture(moves.get(i)) && Position.typeOf(Move.getMovedPiece(moves.get(i))) != Position.MEGAROOK)
+					move = moves.get(i);
+			}
+			game.makeMove(move);
+			assertScoresMatchBoard(position);
+		}
+		assertTrue(position.getPhase() < PieceSquareTables.MAX_PHASE);
+		for(int ply = 0; ply < 16; ply++) {
+			game.unmakeMove();
+			assertScoresMatchBoard(position);
+		}
+		assertEquals(position.getMidgameScore(), 0);
+	}
+	
+	private void assertScoresMatchBoard(Position position) {
+		int midgame = 0;
+		int endgame = 0;
+		for(int square = 0; square < Bitboards.NUM_SQUARES; square++) {
+			int code = position.getPieceAt(square);
+			if(code == Position.NO_PIECE) continue;
+			midgame += PieceSquareTables.midgame(code, square);
+			endgame += PieceSquareTables.endgame(code, square);
+		}
+		assertEquals(position.getMidgameScore(), midgame);
+		assertEquals(position.getEndgameScore(), endgame);
+	}
+	
+	@Test
+	public void StaticExchange() {
+		Game game = new Game();
+		game.addPiece(King.class, Chess.Color.WHITE, game.getBoard().getSpot(0, 0));
+		game.addPiece(King.class, Chess.Color.BLACK, game.getBoard().getSpot(7, 7));
+		game.addPiece(Rook.class, Chess.Color.WHITE, game.getBoard().getSpot(0, 4));
+		game.addPiece(Pawn.class, Chess.Color.BLACK, game.getBoard().getSpot(4, 4));
+		game.addPiece(Knight.class, Chess.Color.BLACK, game.getBoard().getSpot(6, 3));
+		Position position = game.getBoard().getPosition();
+		StaticExchange exchange = new StaticExchange();
+		
+		int rookTakesPawn = Move.create(Bitboards.square(0, 4), Bitboards.square(4, 4),
+			Position.pieceCode(Position.WHITE, Position.ROOK), Position.pieceCode(Position.BLACK, Position.PAWN));
+		
+		// The knight takes the rook back
+		assertEquals(exchange.evaluate(position, rookTakesPawn), 100 - 500);
+		
+		// A second rook behind the first wins the knight back, but not the exchange
+		game.addPiece(Rook.class, Chess.Color.WHITE, game.getBoard().getSpot(1, 4));
+		assertEquals(exchange.evaluate(position, rookTakesPawn), 100 - 500 + 320);
+		
+		// A MegaRook backs up the knight even through the rooks
+		game.addPiece(MegaRook.class, Chess.Color.BLACK, game.getBoard().getSpot(4, 0));
+		game.addPiece(Pawn.class, Chess.Color.BLACK, game.getBoard().getSpot(4, 1));
+		assertEquals(exchange.evaluate(position, rookTakesPawn), 100 - 500);
+	}
+
+}
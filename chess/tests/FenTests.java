@@ -0,0 +1,101 @@
+package chess.tests;
+
+import chess.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FenTests {
+	
+	private Position position;
+	
+	public void setUp() {
+		position = new Position();
+	}
+	
+	@Test
+	public void StartingPositions() {
+		setUp();
+		
+		Game game = new Game();
+		game.startGame();
+		assertEquals(Fen.toFen(game), Fen.STANDARD_START);
+		assertEquals(Fen.createGame(Fen.STANDARD_START).getKey(), game.getKey());
+		
+		Chess.useCustomPieces(true);
+		game = new Game();
+		game.startGame();
+		Chess.useCustomPieces(false);
+		assertEquals(Fen.toFen(game), Fen.CUSTOM_START);
+		assertEquals(Fen.createGame(Fen.CUSTOM_START).getKey(), game.getKey());
+	}
+	
+	@Test
+	public void RoundTrip() {
+		setUp();
+		
+		String fen = "4k3/5p2/8/2m5/3F4/8/5P2/M3K2f b - - 0 1 h1d4";
+		Fen.parse(fen, position);
+		assertEquals(Fen.toFen(position), fen);
+		assertEquals(position.getSideToMove(), Position.BLACK);
+		assertTrue(position.hasOddParity(Bitboards.parseSquare("d4", 0)));
+		
+		Game game = Fen.createGame(fen);
+		assertEquals(game.getTurnColor(), Chess.Color.BLACK);
+		assertEquals(game.getKey(), position.getKey());
+		assertEquals(game.getBoard().getSpot(3, 3).getPiece().getMoveParity(), 1);
+		
+		// Reusing the position leaves nothing of the last one behind
+		Fen.parse(Fen.STANDARD_START, position);
+		assertEquals(Fen.toFen(position), Fen.STANDARD_START);
+	}
+	
+	@Test
+	public void OptionalFields() {
+		setUp();
+		
+		Fen.parse("8/8/8/8/8/8/8/K6k", position);
+		assertEquals(Fen.toFen(position), "8/8/8/8/8/8/8/K6k w - - 0 1");
+		
+		Fen.parse("8/8/8/8/8/8/8/K6k b KQkq - 12 40 -", position);
+		assertEquals(Fen.toFen(position), "8/8/8/8/8/8/8/K6k b - - 0 1");
+	}
+	
+	@Test
+	public void InvalidFen() {
+		setUp();
+		
+		String[] invalid = {
+			"8/8/8/8/8/8/8/K6kk w",
+			"8/8/8/8/8/8/K6k w",
+			"8/8/8/8/8/8/8/K6x w",
+			"8/8/8/8/8/8/8/K6k x",
+			"8/8/8/8/8/8/8/K6k w - - 0 1 a1",
+			
+			// No White king, two Black kings, and more pieces than a side can have
+			"8/8/3k4/8/8/8/8/8 w - - 0 1",
+			"8/8/3k4/8/8/8/8/K6k w - - 0 1",
+			"1QQQQQQk/Q6Q/Q6Q/Q3Q3/Q5Q1/Q2Q3Q/QQ3Q2/K1QQ3Q w - - 0 1"
+		};
+		for(String fen : invalid) {
+			try {
+				Fen.parse(fen, position);
+				fail("Accepted " + fen);
+			} catch(Chess.ChessError e) {
+				assertTrue(e.getMessage().startsWith("Invalid FEN"));
+			}
+		}
+	}
+	
+	@Test
+	public void FullestPosition() {
+		setUp();
+		
+		// A king and fifteen queens, as many pieces as a side may have, still fit a MoveList
+		Fen.parse("6rk/6pp/Q2Q2Q1/4Q3/Q2Q2Q1/1Q2Q2Q/Q2Q2Q1/K2Q2Q1 w - - 0 1", position);
+		MoveList moves = new MoveList();
+		position.generateLegalMoves(Position.WHITE, moves);
+		assertTrue(moves.size() > 0 && moves.size() <= MoveList.MAX_MOVES);
+	}
+
+}
@@ -0,0 +1,141 @@
+package chess.tests;
+
+import chess.*;
+import chess.archive.*;
+import chess.pgn.PgnGame;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class GameArchiveTests {
+	
+	private static final String[] STARTS = {
+		Fen.STANDARD_START, Fen.CUSTOM_START, "4k3/5p2/8/2m5/3F4/8/5P2/M3K3 b - - 0 1 d4"
+	};
+	
+	private Path path;
+	private PgnGame[] games;
+	
+	public void setUp() throws IOException {
+		path = Files.createTempFile("games", ".archive");
+		
+		// Random games from each starting position, up to 60 moves long
+		Random random = new Random(7);
+		games = new PgnGame[30];
+		MoveList moves = new MoveList();
+		for(int i = 0; i < games.length; i++) {
+			Position position = new Position();
+			Fen.parse(STARTS[i % STARTS.length], position);
+			
+			games[i] = new PgnGame();
+			if(i % STARTS.length != 0) games[i].setStartingFen(STARTS[i % STARTS.length]);
+			games[i].setTag("Event", "Game " + i);
+			games[i].setResult(PgnGame.DRAW);
+			for(int ply = 0; ply < 60; ply++) {
+				moves.clear();
+				position.generateLegalMoves(position.getSideToMove(), moves);
+				if(moves.isEmpty()) break;
+				
+				int move = moves.get(random.nextInt(moves.size()));
+				games[i].addMove(move);
+				position.makeMove(move);
+			}
+		}
+		
+		GameArchiveWriter writer = GameArchiveWriter.open(path);
+		for(PgnGame game : games) {
+			writer.write(game);
+		}
+		writer.close();
+	}
+	
+	@Test
+	public void RoundTrip() throws IOException {
+		setUp();
+		
+		GameArchive archive = new GameArchive(path);
+		assertEquals(archive.getGameCount(), games.length);
+		
+		// Read out of order, each straight from the index
+		for(int i = games.length - 1; i >= 0; i -= 2) {
+			PgnGame game = archive.read(i);
+			assertEquals(game.getStartingFen(), games[i].getStartingFen());
+			assertEquals(game.getTag("Event"), "Game " + i);
+			assertEquals(game.getResult(), PgnGame.DRAW);
+			assertEquals(game.getMoveCount(), games[i].getMoveCount());
+			for(int ply = 0; ply < game.getMoveCount(); ply++) {
+				assertEquals(game.getMove(ply), games[i].getMove(ply));
+			}
+			assertEquals(game.toGame().getKey(), games[i].toGame().getKey());
+		}
+		archive.close();
+		Files.delete(path);
+	}
+	
+	@Test
+	public void OneBytePerMove() throws IOException {
+		setUp();
+		
+		// Magic and version, each game's two start bytes, tags and move count, then the index and trailer
+		long expected = 8 + 16;
+		for(PgnGame game : games) {
+			expected += 2 + 1 + 2 + "Event".length() + 2 + game.getTag("Event").length() + 2 + game.getMoveCount() + 8;
+			if(game.getStartingFen().equals(STARTS[2])) expected += 2 + STARTS[2].length();
+		}
+		assertEquals(Files.size(path), expected);
+		Files.delete(path);
+	}
+	
+	@Test
+	public void RejectedGameIsNotWritten() throws IOException {
+		setUp();
+		
+		GameArchiveWriter writer = GameArchiveWriter.open(path);
+		writer.write(games[0]);
+		
+		// A game whose second move is illegal, after a legal first move
+		PgnGame illegal = new PgnGame();
+		illegal.setTag("Event", "Illegal");
+		illegal.addMove(Move.create(Bitboards.square(1, 4), Bitboards.square(3, 4)));
+		illegal.addMove(Move.create(Bitboards.square(7, 4), Bitboards.square(5, 4)));
+		try {
+			writer.write(illegal);
+			fail("Archived an illegal move");
+		} catch(Chess.ChessError e) {
+			assertTrue(e.getMessage().startsWith("Illegal move"));
+		}
+		assertEquals(writer.getGameCount(), 1);
+		
+		writer.write(games[1]);
+		writer.close();
+		
+		// The archive holds just the two good games, both readable
+		GameArchive archive = new GameArchive(path);
+		assertEquals(archive.getGameCount(), 2);
+		assertEquals(archive.read(0).getTag("Event"), "Game 0");
+		assertEquals(archive.read(1).getTag("Event"), "Game 1");
+		assertEquals(archive.read(1).getMoveCount(), games[1].getMoveCount());
+		archive.close();
+		Files.delete(path);
+	}
+	
+	@Test
+	public void NotAnArchive() throws IOException {
+		setUp();
+		
+		Files.write(path, "[Event \"?\"]\n\n1. e4 *\n".getBytes());
+		try {
+			new GameArchive(path);
+			fail("Opened a PGN file as an archive");
+		} catch(IOException e) {
+			assertTrue(e.getMessage().startsWith("Not a game archive"));
+		}
+		Files.delete(path);
+	}
+	
+}
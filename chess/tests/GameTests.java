@@ -37,13 +37,13 @@ public class GameTests {
 		
 		for(Chess.RowConfiguration rowConfiguration : Chess.ROW_CONFIGURATIONS) {
 			int row = rowConfiguration.row;
-			Class[] pieceClasses = rowConfiguration.pieces;
+			Chess.PieceType[] pieceTypes = rowConfiguration.pieces;
 			Chess.Color sideColor = rowConfiguration.sideColor;
 
 			// Assert that a piece of the right color and type is in each spot
 			for(int col = 0; col < Chess.NUM_COLS; col++) {
 				Piece piece = game.getBoard().getPieceAt(row, col);
-				assertTrue(pieceClasses[col].isInstance(piece));
+				assertEquals(piece.getPieceType(), pieceTypes[col]);
 				assertEquals(piece.getColor(), sideColor);
 			}
 		}
@@ -88,6 +88,26 @@ public class GameTests {
 		assertTrue(game.isInStalemate(Chess.Color.BLACK));
 	}
 	
+	@Test
+	public void Status() {
+		setUp();
+		
+		GameStatus status = game.getStatus(Chess.Color.BLACK);
+		assertFalse(status.isInCheck());
+		assertFalse(status.isGameOver());
+		assertTrue(status.hasLegalMove(bRook.getSpot().getSquare(), Bitboards.square(2, 3)));
+		
+		// The status is kept until the position changes
+		assertSame(game.getStatus(Chess.Color.BLACK), status);
+		assertEquals(status.getLegalMoves().size(), 13);
+		
+		wRook1.moveTo(game.getBoard().getSpot(7,  5));
+		status = game.getStatus(Chess.Color.BLACK);
+		assertTrue(status.isInCheck());
+		assertTrue(status.isCheckmate());
+		assertTrue(status.getLegalMoves().isEmpty());
+	}
+	
 	@Test
 	public void CapturePiece() {
 		setUp();
@@ -131,5 +151,123 @@ public class GameTests {
 		wRook1.moveTo(game.getBoard().getSpot(7, 5));
 		assertTrue(game.moveWouldPutKingInCheck(bRook, game.getBoard().getSpot(6, 6)));
 	}
+	
+	@Test
+	public void MegaRookCheckCannotBeBlocked() {
+		setUp();
+		
+		MegaRook bMegaRook = (MegaRook) game.addPiece(MegaRook.class, Chess.Color.BLACK, game.getBoard().getSpot(0, 7));
+		
+		// The MegaRook attacks the king along the bottom row
+		assertTrue(game.isInCheck(Chess.Color.WHITE));
+		
+		// Moving a piece between the MegaRook and the king doesn't block the check
+		assertTrue(game.moveWouldPutKingInCheck(wBishop, game.getBoard().getSpot(0, 1)));
+		
+		// Capturing the MegaRook resolves the check
+		assertTrue(wRook2.getPossibleMoves().isEmpty());
+		wRook2.moveTo(game.getBoard().getSpot(2, 7));
+		assertTrue(wRook2.getPossibleMoves().contains(bMegaRook.getSpot()));
+	}
+	
+	@Test
+	public void MakeAndUnmakeMove() {
+		setUp();
+		
+		FlipFlopper wFlipFlopper = (FlipFlopper) game.addPiece(FlipFlopper.class, Chess.Color.WHITE, game.getBoard().getSpot(3, 0));
+		Board.Spot flipFlopperSpot = wFlipFlopper.getSpot();
+		Board.Spot rookSpot = bRook.getSpot();
+		
+		game.makeMove(Move.create(flipFlopperSpot.getSquare(), rookSpot.getSquare()));
+		
+		assertFalse(bRook.isInPlay());
+		assertEquals(wFlipFlopper.getSpot(), rookSpot);
+		assertEquals(wFlipFlopper.getMoveParity(), 1);
+		assertEquals(game.getTurnColor(), Chess.Color.BLACK);
+		
+		game.unmakeMove();
+		
+		// The captured piece itself returns to play
+		assertTrue(bRook.isInPlay());
+		assertEquals(rookSpot.getPiece(), bRook);
+		assertTrue(game.getPieces(Chess.Color.BLACK).contains(bRook));
+		assertEquals(wFlipFlopper.getSpot(), flipFlopperSpot);
+		assertEquals(wFlipFlopper.getMoveParity(), 0);
+		assertEquals(game.getTurnColor(), Chess.Color.WHITE);
+	}
+	
+	@Test
+	public void PositionKey() {
+		Chess.useCustomPieces(true);
+		Game game = new Game();
+		game.startGame();
+		Chess.useCustomPieces(false);
+		Board board = game.getBoard();
+		
+		long startKey = game.getKey();
+		
+		// Knights out and back again reach the start position with the same side to move
+		game.makeMove(Move.create(Bitboards.square(0, 1), Bitboards.square(2, 2)));
+		assertNotEquals(game.getKey(), startKey);
+		game.makeMove(Move.create(Bitboards.square(7, 1), Bitboards.square(5, 2)));
+		game.makeMove(Move.create(Bitboards.square(2, 2), Bitboards.square(0, 1)));
+		game.makeMove(Move.create(Bitboards.square(5, 2), Bitboards.square(7, 1)));
+		assertEquals(game.getKey(), startKey);
+		
+		game.unmakeMove();
+		assertNotEquals(game.getKey(), startKey);
+		
+		// Positions differing only in a FlipFlopper's parity have different keys
+		FlipFlopper flipFlopper = (FlipFlopper) board.getPieceAt(0, 6);
+		flipFlopper.setMoveParity(1);
+		long oddParityKey = game.getKey();
+		flipFlopper.setMoveParity(0);
+		assertNotEquals(oddParityKey, game.getKey());
+	}
+	
+	@Test
+	public void PinnedMegaRook() {
+		Position position = Fen.createGame("4k3/8/8/8/8/8/8/K1M1r3 w - - 0 1").getBoard().getPosition();
+		MoveList moves = new MoveList();
+		position.generateLegalMoves(Position.WHITE, moves);
+		
+		// The pinned MegaRook may move towards the rook and take it, but not jump past it
+		int megaRook = Bitboards.square(0, 2);
+		assertTrue(moves.contains(megaRook, Bitboards.square(0, 3)));
+		assertTrue(moves.contains(megaRook, Bitboards.square(0, 4)));
+		assertFalse(moves.contains(megaRook, Bitboards.square(0, 5)));
+		assertFalse(moves.contains(megaRook, Bitboards.square(0, 7)));
+		assertFalse(moves.contains(megaRook, Bitboards.square(1, 2)));
+		
+		// Nor over its own king
+		position = Fen.createGame("4k3/8/8/8/8/8/8/1K1Mr3 w - - 0 1").getBoard().getPosition();
+		moves.clear();
+		position.generateLegalMoves(Position.WHITE, moves);
+		assertFalse(moves.contains(Bitboards.square(0, 3), Bitboards.square(0, 0)));
+		assertTrue(moves.contains(Bitboards.square(0, 3), Bitboards.square(0, 4)));
+	}
+	
+	@Test
+	public void AttackMaps() {
+		setUp();
+		Position position = game.getBoard().getPosition();
+		
+		// The king is found on its current square
+		wKing.moveTo(game.getBoard().getSpot(1, 1));
+		assertEquals(game.getKing(Chess.Color.WHITE), wKing);
+		assertEquals(position.getKingSquare(Position.WHITE), Bitboards.square(1, 1));
+		
+		// The rook's attacks continue behind the king, so it can't step back along them
+		bRook.moveTo(game.getBoard().getSpot(5, 1));
+		assertTrue(Bitboards.contains(position.getAttackMap(Position.BLACK), Bitboards.square(0, 1)));
+		assertTrue(game.isInCheck(Chess.Color.WHITE));
+		assertFalse(wKing.getPossibleMoves().contains(game.getBoard().getSpot(0, 1)));
+		assertTrue(wKing.getPossibleMoves().contains(game.getBoard().getSpot(0, 0)));
+		
+		// The map follows the position as it changes
+		bRook.moveTo(game.getBoard().getSpot(5, 2));
+		assertFalse(Bitboards.contains(position.getAttackMap(Position.BLACK), Bitboards.square(0, 1)));
+		assertFalse(game.isInCheck(Chess.Color.WHITE));
+	}
 
 }
@@ -0,0 +1,55 @@
+package chess.tests;
+
+import chess.*;
+import chess.perft.Perft;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class PerftTests {
+	
+	// Node counts from the starting position at depths 1 to 4
+	private static final long[] STANDARD_COUNTS = { 20, 400, 8902, 197281 };
+	private static final long[] CUSTOM_COUNTS = { 24, 549, 14465, 379236 };
+	
+	public Game startGame(boolean useCustom) {
+		Chess.useCustomPieces(useCustom);
+		Game game = new Game();
+		game.startGame();
+		Chess.useCustomPieces(false);
+		return game;
+	}
+	
+	@Test
+	public void StandardPieces() {
+		Game game = startGame(false);
+		
+		for(int depth = 1; depth <= STANDARD_COUNTS.length; depth++) {
+			assertEquals(Perft.perft(game, depth), STANDARD_COUNTS[depth - 1]);
+		}
+	}
+	
+	@Test
+	public void CustomPieces() {
+		Game game = startGame(true);
+		
+		for(int depth = 1; depth <= CUSTOM_COUNTS.length; depth++) {
+			assertEquals(Perft.perft(game, depth), CUSTOM_COUNTS[depth - 1]);
+		}
+	}
+	
+	@Test
+	public void Divide() throws Exception {
+		Game game = startGame(true);
+		
+		MoveList rootMoves = new MoveList();
+		long[] counts = Perft.divide(game, rootMoves, 3, 4);
+		
+		long nodes = 0;
+		for(long count : counts) nodes += count;
+		
+		assertEquals(counts.length, CUSTOM_COUNTS[0]);
+		assertEquals(nodes, CUSTOM_COUNTS[2]);
+	}
+
+}
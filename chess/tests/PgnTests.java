@@ -0,0 +1,190 @@
+package chess.tests;
+
+import chess.*;
+import chess.pgn.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+import org.junit.Test;
+
+public class PgnTests {
+	
+	private static final String GAMES =
+		"[Event \"First\"]\n" +
+		"[Result \"1-0\"]\n" +
+		"\n" +
+		"1. e4 {best by test} e5 2. Bc4 (2. Nf3 Nc6 {a [bracket]} (2... d6)) Nc6 3. Qh5 $2 Nf6??\n" +
+		"4. Qxf7# 1-0\n" +
+		"\n" +
+		"[Event \"Second\"]\n" +
+		"[SetUp \"1\"]\n" +
+		"[FEN \"4k3/8/8/8/8/8/8/R3K2R b - - 0 1\"]\n" +
+		"\n" +
+		"1... Kd7 2.Rad1+ ; a rook lift\n" +
+		"Ke7 *\n" +
+		"\n" +
+		"[Event \"Third\"]\n" +
+		"\n" +
+		"1. d4 d5 1/2-1/2\n";
+	
+	private PgnReader reader;
+	private Position position;
+	
+	public void setUp() {
+		reader = new PgnReader(Channels.newChannel(new ByteArrayInputStream(GAMES.getBytes())));
+		position = new Position();
+	}
+	
+	@Test
+	public void ReadGames() throws IOException {
+		setUp();
+		
+		PgnGame game = reader.next();
+		assertEquals(game.getTag("Event"), "First");
+		assertEquals(game.getResult(), PgnGame.WHITE_WINS);
+		assertEquals(game.getMoveCount(), 7);
+		assertTrue(game.toGame().isInCheckmate(Chess.Color.BLACK));
+		
+		game = reader.next();
+		assertEquals(game.getTag("Event"), "Second");
+		assertEquals(game.getResult(), PgnGame.UNKNOWN_RESULT);
+		assertEquals(game.getMoveCount(), 3);
+		assertEquals(Move.toLongAlgebraic(game.getMove(1)), "a1d1");
+		
+		game = reader.next();
+		assertEquals(game.getResult(), PgnGame.DRAW);
+		assertNull(reader.next());
+	}
+	
+	@Test
+	public void SkipToGame() throws IOException {
+		setUp();
+		
+		assertTrue(reader.skipTo(2));
+		assertEquals(reader.next().getTag("Event"), "Third");
+		
+		setUp();
+		assertTrue(reader.skip());
+		assertEquals(reader.getGameIndex(), 1);
+		assertEquals(reader.next().getTag("Event"), "Second");
+		assertFalse(reader.skipTo(5));
+	}
+	
+	@Test
+	public void IllegalMove() throws IOException {
+		setUp();
+		reader = new PgnReader(Channels.newChannel(new ByteArrayInputStream(
+			"1. e4 e5 2. Ke3 *\n\n[Event \"Next\"]\n\n1. d4 *\n".getBytes())));
+		
+		try {
+			reader.next();
+			fail("Accepted an illegal move");
+		} catch(Chess.ChessError e) {
+			assertTrue(e.getMessage().contains("Ke3"));
+		}
+		
+		// The reader carries on with the next game, the rest of the bad one skipped
+		assertEquals(reader.getGameIndex(), 1);
+		assertEquals(reader.next().getTag("Event"), "Next");
+	}
+	
+	@Test
+	public void RecoverFromBadGames() throws IOException {
+		setUp();
+		reader = new PgnReader(Channels.newChannel(new ByteArrayInputStream((
+			"1. e4 e5 2. Ke3 Nc6 3. Nf3 1-0\n\n" +
+			"[Event \"Bad FEN\"]\n[FEN \"8/8/8 w - - 0 1\"]\n\n1. Kd2 Kd7 *\n\n" +
+			"[Event \"Good\"]\n\n1. d4 d5 *\n").getBytes())));
+		
+		for(int i = 0; i < 2; i++) {
+			try {
+				reader.next();
+				fail("Accepted bad game " + i);
+			} catch(Chess.ChessError e) {
+				assertTrue(e.getMessage().startsWith("Game " + i + ":"));
+			}
+		}
+		
+		assertEquals(reader.getGameIndex(), 2);
+		PgnGame game = reader.next();
+		assertEquals(game.getTag("Event"), "Good");
+		assertEquals(game.getMoveCount(), 2);
+		assertNull(reader.next());
+	}
+	
+	@Test
+	public void SanDisambiguation() {
+		setUp();
+		
+		Fen.parse("4k3/8/8/8/8/4K3/1N3N2/R6R w - - 0 1", position);
+		assertEquals(san("b2d3"), "Nbd3");
+		assertEquals(san("a1d1"), "Rad1");
+		assertEquals(san("e3d4"), "Kd4");
+		
+		Fen.parse("7k/8/8/R7/8/8/8/R3K3 w - - 0 1", position);
+		assertEquals(san("a1a3"), "R1a3");
+		
+		Fen.parse("4k3/8/8/8/8/8/8/M3K3 w - - 0 1", position);
+		assertEquals(san("a1a8"), "Ma8+");
+		assertEquals(Move.toLongAlgebraic(San.parse(position, "Ma8+")), "a1a8");
+		assertEquals(San.parse(position, "Qa8"), Move.NONE);
+	}
+	
+	@Test
+	public void WriteAndReadBack() throws IOException {
+		setUp();
+		
+		Chess.useCustomPieces(true);
+		Game game = new Game();
+		game.startGame();
+		Chess.useCustomPieces(false);
+		
+		String[] playedMoves = { "f2f4", "e7e5", "g1e3", "d7d6", "e3d4", "e5d4" };
+		for(String name : playedMoves) {
+			int move = San.parse(game.getBoard().getPosition(), toSanOf(game, name));
+			game.makeMove(move);
+		}
+		long key = game.getKey();
+		
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		PgnWriter writer = new PgnWriter(Channels.newChannel(output));
+		writer.write(game);
+		writer.close();
+		
+		// The game is left where it was
+		assertEquals(game.getKey(), key);
+		assertEquals(game.getMoveCount(), playedMoves.length);
+		
+		String pgn = output.toString();
+		assertTrue(pgn.startsWith("[Event \"?\"]\n"));
+		assertTrue(pgn.contains("[FEN \"" + Fen.CUSTOM_START + "\"]"));
+		assertTrue(pgn.contains("1. f4 e5 2. Fe3 d6 3. Fd4 exd4 *"));
+		
+		reader = new PgnReader(Channels.newChannel(new ByteArrayInputStream(output.toByteArray())));
+		assertEquals(reader.next().toGame().getKey(), key);
+	}
+	
+	private String san(String longAlgebraic) {
+		return San.toSan(position, findMove(position, longAlgebraic));
+	}
+	
+	private String toSanOf(Game game, String longAlgebraic) {
+		Position gamePosition = game.getBoard().getPosition();
+		return San.toSan(gamePosition, findMove(gamePosition, longAlgebraic));
+	}
+	
+	private int findMove(Position position, String longAlgebraic) {
+		MoveList legalMoves = new MoveList();
+		position.generateLegalMoves(position.getSideToMove(), legalMoves);
+		for(int i = 0; i < legalMoves.size(); i++) {
+			if(Move.toLongAlgebraic(legalMoves.get(i)).equals(longAlgebraic)) return legalMoves.get(i);
+		}
+		fail("No move " + longAlgebraic);
+		return Move.NONE;
+	}
+	
+}
@@ -25,6 +25,19 @@ public class PieceTests {
 		assertEquals(piece.getSpot(), game.getBoard().getSpot(2,  3));
 	}
 	
+	@Test
+	public void CreateFromType() {
+		setUp();
+		
+		for(Chess.PieceType type : Chess.PieceType.values()) {
+			Piece piece = game.addPiece(type, Chess.Color.WHITE, game.getBoard().getSpot(type.ordinal()));
+			assertEquals(piece.getClass(), type.getPieceClass());
+			assertEquals(piece.getPieceType(), type);
+			assertEquals(Chess.PieceType.of(piece.getClass()), type);
+		}
+		assertEquals(game.getPieces(Chess.Color.WHITE).size(), Chess.PieceType.values().length);
+	}
+	
 	@Test
 	public void Movement() {
 		setUp();
@@ -84,6 +97,63 @@ public class PieceTests {
 		assertFalse(bBishop.isAvailableSpot(1,  3, false));
 	}
 	
+	@Test
+	public void EncodedMoves() {
+		setUp();
+		
+		Queen wQueen = (Queen) game.addPiece(Queen.class, Chess.Color.WHITE, game.getBoard().getSpot(3, 3));
+		Knight bKnight = (Knight) game.addPiece(Knight.class, Chess.Color.BLACK, game.getBoard().getSpot(5, 5));
+		
+		MoveList moves = new MoveList();
+		wQueen.getPossibleMoves(moves);
+		
+		List<Board.Spot> expectedMoves = wQueen.getPossibleMoves();
+		assertEquals(moves.size(), expectedMoves.size());
+		for(int i = 0; i < moves.size(); i++) {
+			int move = moves.get(i);
+			assertEquals(Move.getFrom(move), wQueen.getSpot().getSquare());
+			assertEquals(Move.getMovedPiece(move), wQueen.getCode());
+			assertTrue(expectedMoves.contains(game.getBoard().getSpot(Move.getTo(move))));
+			assertTrue(wQueen.canMoveTo(game.getBoard().getSpot(Move.getTo(move))));
+			
+			// Only the move onto the knight captures it
+			boolean capturesKnight = Move.getTo(move) == bKnight.getSpot().getSquare();
+			assertEquals(Move.isCapture(move), capturesKnight);
+			if(capturesKnight) assertEquals(Move.getCapturedPiece(move), bKnight.getCode());
+		}
+		
+		assertFalse(wQueen.canMoveTo(game.getBoard().getSpot(6, 6)));
+	}
+	
+	@Test
+	public void Movements() {
+		// A piece that rides straight up the board, and leaps one square to either side
+		Movement movement = Movement.rider(new int[]{ 1, 0 }).plus(Movement.leaper(new int[]{ 0, 1 }, new int[]{ 0, -1 }));
+		long occupied = Bitboards.bit(Bitboards.square(5, 3)) | Bitboards.bit(Bitboards.square(2, 4));
+		
+		long expected = Bitboards.bit(Bitboards.square(3, 3)) | Bitboards.bit(Bitboards.square(4, 3)) |
+			Bitboards.bit(Bitboards.square(5, 3)) | Bitboards.bit(Bitboards.square(2, 2)) | Bitboards.bit(Bitboards.square(2, 4));
+		assertEquals(movement.attacks(Position.WHITE, Bitboards.square(2, 3), occupied), expected);
+		
+		// Black's pieces move down the board instead
+		expected = Bitboards.bit(Bitboards.square(1, 3)) | Bitboards.bit(Bitboards.square(0, 3)) |
+			Bitboards.bit(Bitboards.square(2, 2)) | Bitboards.bit(Bitboards.square(2, 4));
+		assertEquals(movement.attacks(Position.BLACK, Bitboards.square(2, 3), occupied), expected);
+		
+		// A White pawn is attacked from where a Black pawn would attack
+		assertEquals(Attacks.PAWN_MOVEMENT.reversed().attacks(Position.WHITE, Bitboards.square(4, 4), 0L),
+			Attacks.pawn(Position.BLACK, Bitboards.square(4, 4)));
+		
+		// The built-in movements match the attack tables
+		assertEquals(Attacks.getMovement(Position.KNIGHT, false).attacks(Position.WHITE, 0, 0L), Attacks.knight(0));
+		assertEquals(Attacks.getMovement(Position.FLIPFLOPPER, true).attacks(Position.BLACK, 27, occupied), Attacks.king(27));
+		
+		try {
+			Movement.rider(new int[]{ 1, 2 });
+			fail("Rides must step along a line");
+		} catch(Chess.ChessError e) {}
+	}
+	
 	public void assertMovesEqual(List<Board.Spot> moves, Board.Spot[] expectedMoves) {
 		assertEquals(moves.size(), expectedMoves.length);
 		for(Board.Spot spot : expectedMoves) {
@@ -0,0 +1,192 @@
+package chess.tests;
+
+import chess.*;
+import chess.engine.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class SearchTests {
+	
+	private Game game;
+	private Search search;
+	
+	public void setUp() {
+		game = new Game();
+		game.addPiece(King.class, Chess.Color.WHITE, game.getBoard().getSpot(0, 0));
+		game.addPiece(King.class, Chess.Color.BLACK, game.getBoard().getSpot(7, 7));
+		search = new Search(game, new TranspositionTable(1));
+	}
+	
+	@Test
+	public void MateInOne() {
+		setUp();
+		
+		game.addPiece(Rook.class, Chess.Color.WHITE, game.getBoard().getSpot(6, 0));
+		game.addPiece(Rook.class, Chess.Color.WHITE, game.getBoard().getSpot(0, 1));
+		game.startNewTurn();
+		
+		SearchResult result = search.search(SearchLimits.depth(3));
+		
+		assertTrue(Move.sameSquares(result.getBestMove(), Move.create(Bitboards.square(0, 1), Bitboards.square(7, 1))));
+		assertTrue(result.isMateScore());
+		assertEquals(result.getMateInMoves(), 1);
+	}
+	
+	@Test
+	public void CapturesHangingPiece() {
+		setUp();
+		
+		game.addPiece(Rook.class, Chess.Color.WHITE, game.getBoard().getSpot(3, 3));
+		game.addPiece(Queen.class, Chess.Color.BLACK, game.getBoard().getSpot(3, 6));
+		game.startNewTurn();
+		long key = game.getKey();
+		
+		SearchResult result = search.search(SearchLimits.depth(2));
+		
+		assertTrue(Move.sameSquares(result.getBestMove(), Move.create(Bitboards.square(3, 3), Bitboards.square(3, 6))));
+		assertTrue(result.score > 0);
+		
+		// The search takes back every move it makes
+		assertEquals(game.getKey(), key);
+		assertEquals(game.getTurnColor(), Chess.Color.WHITE);
+	}
+	
+	@Test
+	public void DepthBelowOne() {
+		Game game = new Game();
+		game.startGame();
+		Search search = new Search(game, new TranspositionTable(1));
+		
+		// A search always completes at least one ply
+		SearchResult result = search.search(SearchLimits.depth(0));
+		assertEquals(result.depth, 1);
+		assertNotEquals(result.getBestMove(), Move.NONE);
+		assertEquals(SearchLimits.depth(-3).maxDepth, 1);
+	}
+	
+	@Test
+	public void NodeLimit() {
+		Game game = new Game();
+		game.startGame();
+		Search search = new Search(game, new TranspositionTable(1));
+		
+		SearchResult result = search.search(SearchLimits.nodes(5000));
+		
+		assertTrue(search.getNodes() <= 5000);
+		assertNotEquals(result.getBestMove(), Move.NONE);
+		assertTrue(result.principalVariation.length <= result.depth);
+	}
+	
+	@Test
+	public void CustomPieces() {
+		Chess.useCustomPieces(true);
+		Game game = new Game();
+		game.startGame();
+		Chess.useCustomPieces(false);
+		Search search = new Search(game, new TranspositionTable(1));
+		
+		SearchResult result = search.search(SearchLimits.depth(3));
+		
+		assertEquals(result.depth, 3);
+		MoveList moves = new MoveList();
+		game.generateLegalMoves(Chess.Color.WHITE, moves);
+		assertTrue(moves.contains(Move.getFrom(result.getBestMove()), Move.getTo(result.getBestMove())));
+	}
+	
+	@Test
+	public void ParallelSearch() throws Exception {
+		setUp();
+		
+		game.addPiece(Rook.class, Chess.Color.WHITE, game.getBoard().getSpot(6, 0));
+		game.addPiece(Rook.class, Chess.Color.WHITE, game.getBoard().getSpot(0, 1));
+		game.startNewTurn();
+		long key = game.getKey();
+		
+		ParallelSearch search = new ParallelSearch(game, new TranspositionTable(1), 4);
+		SearchResult result = search.search(SearchLimits.depth(4));
+		
+		assertTrue(Move.sameSquares(result.getBestMove(), Move.create(Bitboards.square(0, 1), Bitboards.square(7, 1))));
+		assertEquals(result.getMateInMoves(), 1);
+		assertEquals(result.nodes, search.getNodes());
+		
+		// Each thread searches its own copy of the game
+		assertEquals(game.getKey(), key);
+	}
+	
+	@Test
+	public void ParallelSearchStops() throws Exception {
+		Game game = new Game();
+		game.startGame();
+		ParallelSearch search = new ParallelSearch(game, new TranspositionTable(1), 2);
+		
+		// A stop before the search starts its threads ends it after its first iteration
+		search.stop();
+		assertEquals(search.search(SearchLimits.depth(20)).depth, 1);
+		
+		// But a stop left over from a finished search doesn't cut the next one short
+		search.stop();
+		assertEquals(search.search(SearchLimits.depth(3)).depth, 3);
+	}
+	
+	@Test
+	public void MovePickerOrder() {
+		Chess.useCustomPieces(true);
+		Game game = new Game();
+		game.startGame();
+		Chess.useCustomPieces(false);
+		Position position = game.getBoard().getPosition();
+		
+		MoveList moves = new MoveList();
+		game.generateLegalMoves(Chess.Color.WHITE, moves);
+		int hashMove = moves.get(0);
+		int killer = moves.get(moves.size() / 2);
+		
+		MovePicker movePicker = new MovePicker();
+		movePicker.reset(position, hashMove, new int[]{ killer, Move.NONE }, new int[2][Bitboards.NUM_SQUARES][Bitboards.NUM_SQUARES]);
+		MoveList picked = new MoveList();
+		for(int move = movePicker.next(); move != Move.NONE; move = movePicker.next()) {
+			picked.add(move);
+		}
+		
+		assertEquals(picked.size(), moves.size());
+		assertEquals(picked.get(0), hashMove);
+		
+		// Taking the MegaRook wins it, while taking the pawn in front of it loses the MegaRook
+		assertTrue(Move.sameSquares(picked.get(1), Move.create(Bitboards.square(0, 0), Bitboards.square(7, 0))));
+		assertEquals(picked.get(2), killer);
+		assertTrue(Move.sameSquares(picked.get(picked.size() - 1), Move.create(Bitboards.square(0, 0), Bitboards.square(6, 0))));
+		for(int i = 0; i < moves.size(); i++) {
+			int move = moves.get(i);
+			assertTrue(picked.contains(Move.getFrom(move), Move.getTo(move)));
+		}
+	}
+	
+	@Test
+	public void SelectivePruning() {
+		Game game = new Game();
+		game.startGame();
+		long key = game.getKey();
+		
+		Search search = new Search(game, new TranspositionTable(1));
+		search.setParameters(SearchParameters.none());
+		search.search(SearchLimits.depth(6));
+		long fullNodes = search.getNodes();
+		assertEquals(search.getStatistics().nullMoveCutoffs, 0);
+		assertEquals(search.getStatistics().futilityPrunes, 0);
+		
+		search = new Search(game, new TranspositionTable(1));
+		search.search(SearchLimits.depth(6));
+		SearchStatistics statistics = search.getStatistics();
+		
+		assertTrue(search.getNodes() < fullNodes);
+		assertTrue(statistics.nullMoveCutoffs > 0);
+		assertTrue(statistics.lateMoveReductions > 0);
+		assertTrue(statistics.futilityPrunes > 0);
+		
+		// Null moves are taken back along with the rest
+		assertEquals(game.getKey(), key);
+		assertEquals(game.getTurnColor(), Chess.Color.WHITE);
+	}
+
+}
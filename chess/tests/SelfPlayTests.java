@@ -0,0 +1,86 @@
+package chess.tests;
+
+import chess.*;
+import chess.selfplay.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class SelfPlayTests {
+	
+	private SelfPlay selfPlay;
+	
+	public void setUp() {
+		selfPlay = new SelfPlay(() -> new RandomPolicy(), () -> new RandomPolicy());
+		selfPlay.setSeed(42);
+	}
+	
+	@Test
+	public void SameGamesOnAnyThreads() throws Exception {
+		setUp();
+		
+		selfPlay.setThreads(1);
+		SelfPlayStatistics oneThread = selfPlay.play(40);
+		selfPlay.setThreads(3);
+		SelfPlayStatistics threeThreads = selfPlay.play(40);
+		
+		assertEquals(oneThread.getGames(), 40);
+		assertEquals(threeThreads.getAverageLength(), oneThread.getAverageLength(), 0);
+		long total = 0;
+		for(SelfPlay.Outcome outcome : SelfPlay.Outcome.values()) {
+			assertEquals(threeThreads.getCount(outcome), oneThread.getCount(outcome));
+			total += oneThread.getCount(outcome);
+		}
+		assertEquals(total, 40);
+	}
+	
+	@Test
+	public void MoveLimit() throws Exception {
+		setUp();
+		
+		selfPlay.setMaxPlies(10);
+		selfPlay.setStartingFen(Fen.STANDARD_START);
+		SelfPlayStatistics statistics = selfPlay.play(20);
+		
+		// Random play can't mate in ten plies from the start, except by Fool's mate and the like
+		assertTrue(statistics.getCount(SelfPlay.Outcome.MOVE_LIMIT) >= 19);
+		assertEquals(statistics.getLengthCount(0), statistics.getGames());
+	}
+	
+	@Test
+	public void EngineBeatsRandom() throws Exception {
+		setUp();
+		
+		// The MegaRook takes its counterpart at once, which is mate
+		selfPlay = new SelfPlay(() -> new EnginePolicy(2, 1, 0), () -> new RandomPolicy());
+		selfPlay.setStartingFen(Fen.CUSTOM_START);
+		SelfPlayStatistics statistics = selfPlay.play(3);
+		
+		assertEquals(statistics.getCount(SelfPlay.Outcome.WHITE_WINS), 3);
+		assertEquals(statistics.getAverageLength(), 1, 0);
+	}
+	
+	@Test
+	public void EngineGamesDependOnSeed() {
+		// Engines open with a few random moves, so games with different seeds differ
+		EnginePolicy white = new EnginePolicy(1, 1, 2);
+		EnginePolicy black = new EnginePolicy(1, 1, 2);
+		long[] keys = new long[2];
+		for(int seed = 0; seed < 2; seed++) {
+			white.newGame(seed);
+			black.newGame(~seed);
+			Game game = Fen.createGame(Fen.STANDARD_START);
+			SelfPlay.play(game, white, black, 8, new GameStatus());
+			keys[seed] = game.getKey();
+		}
+		assertNotEquals(keys[0], keys[1]);
+		
+		// And the same seed plays the same game again
+		white.newGame(1);
+		black.newGame(~1);
+		Game game = Fen.createGame(Fen.STANDARD_START);
+		SelfPlay.play(game, white, black, 8, new GameStatus());
+		assertEquals(game.getKey(), keys[1]);
+	}
+	
+}
@@ -0,0 +1,66 @@
+package chess.tests;
+
+import chess.*;
+import chess.engine.TranspositionTable;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TranspositionTableTests {
+	
+	private TranspositionTable table;
+	
+	public void setUp() {
+		table = new TranspositionTable(1);
+	}
+	
+	@Test
+	public void StoreAndProbe() {
+		setUp();
+		
+		long key = 0x123456789ABCDEFL;
+		int move = Move.create(12, 28, Position.pieceCode(Position.WHITE, Position.PAWN), Position.NO_PIECE);
+		
+		assertEquals(table.probe(key), TranspositionTable.MISS);
+		
+		table.store(key, move, -250, 7, TranspositionTable.BOUND_LOWER);
+		long entry = table.probe(key);
+		
+		assertNotEquals(entry, TranspositionTable.MISS);
+		assertEquals(TranspositionTable.getMove(entry), move);
+		assertEquals(TranspositionTable.getScore(entry), -250);
+		assertEquals(TranspositionTable.getDepth(entry), 7);
+		assertEquals(TranspositionTable.getBound(entry), TranspositionTable.BOUND_LOWER);
+		
+		// A different key in the same bucket misses
+		assertEquals(table.probe(key ^ (1L << 60)), TranspositionTable.MISS);
+	}
+	
+	@Test
+	public void DepthPreferredReplacement() {
+		setUp();
+		
+		// Keys differing only in their high bits share a bucket
+		long[] keys = new long[6];
+		for(int i = 0; i < keys.length; i++) {
+			keys[i] = 0x40L | ((long) (i + 1) << 56);
+		}
+		
+		for(int i = 0; i < 4; i++) {
+			table.store(keys[i], Move.NONE, 0, 10 + i, TranspositionTable.BOUND_EXACT);
+		}
+		
+		// A full bucket gives up its shallowest entry
+		table.store(keys[4], Move.NONE, 0, 5, TranspositionTable.BOUND_EXACT);
+		assertEquals(table.probe(keys[0]), TranspositionTable.MISS);
+		assertNotEquals(table.probe(keys[4]), TranspositionTable.MISS);
+		
+		// Entries from several searches ago are replaced before shallower current ones
+		for(int i = 0; i < 3; i++) table.newSearch();
+		table.store(keys[4], Move.NONE, 0, 5, TranspositionTable.BOUND_EXACT);
+		table.store(keys[5], Move.NONE, 0, 1, TranspositionTable.BOUND_EXACT);
+		assertNotEquals(table.probe(keys[4]), TranspositionTable.MISS);
+		assertNotEquals(table.probe(keys[5]), TranspositionTable.MISS);
+	}
+
+}
@@ -0,0 +1,91 @@
+package chess.tests;
+
+import chess.uci.Uci;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+
+public class UciTests {
+	
+	private Uci uci;
+	private ByteArrayOutputStream output;
+	
+	public void setUp() {
+		output = new ByteArrayOutputStream();
+		uci = new Uci(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+	}
+	
+	@Test
+	public void Handshake() {
+		setUp();
+		
+		assertTrue(uci.handle("uci"));
+		assertTrue(uci.handle("isready"));
+		
+		String reply = output.toString();
+		assertTrue(reply.contains("option name CustomPieces type check default false"));
+		assertTrue(reply.contains("uciok"));
+		assertTrue(reply.endsWith("readyok" + System.lineSeparator()));
+		
+		assertFalse(uci.handle("quit"));
+	}
+	
+	@Test
+	public void SearchFromPosition() throws InterruptedException {
+		setUp();
+		
+		uci.handle("setoption name CustomPieces value true");
+		uci.handle("setoption name Threads value 2");
+		uci.handle("position startpos moves e2e4 e7e5");
+		uci.handle("go depth 3");
+		uci.waitForSearch();
+		
+		String reply = output.toString();
+		assertTrue(reply.contains("info depth 3 "));
+		assertTrue(reply.contains(" pv "));
+		
+		// Taking the MegaRook mates straight away
+		assertTrue(reply.contains("bestmove a1a8"));
+	}
+	
+	@Test
+	public void SearchFromFen() throws InterruptedException {
+		setUp();
+		
+		// The rook mates along the back row
+		uci.handle("position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+		uci.handle("go depth 2");
+		uci.waitForSearch();
+		assertTrue(output.toString().contains("bestmove a1a8"));
+		
+		uci.handle("position fen 6k1/5ppp/8/8/8/8/8/R5KX w");
+		assertTrue(output.toString().contains("info string Invalid FEN"));
+	}
+	
+	@Test
+	public void InfiniteSearchWaitsForStop() throws InterruptedException {
+		setUp();
+		
+		uci.handle("go infinite");
+		Thread.sleep(50);
+		assertFalse(output.toString().contains("bestmove"));
+		
+		uci.handle("stop");
+		assertTrue(output.toString().contains("bestmove"));
+	}
+	
+	@Test
+	public void StopRightAfterGo() {
+		setUp();
+		
+		// A stop that arrives before the search threads have started still ends the search
+		uci.handle("go infinite");
+		uci.handle("stop");
+		assertTrue(output.toString().contains("bestmove"));
+	}
+
+}
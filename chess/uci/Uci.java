@@ -0,0 +1,401 @@
+package chess.uci;
+
+import chess.*;
+import chess.engine.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Uci: Runs the engine over the Universal Chess Interface, reading commands
+ * from standard input and writing replies to standard output
+ *
+ * Usage: java chess.uci.Uci
+ *
+ * Supported commands are uci, isready, setoption, ucinewgame, position,
+ * go, stop, ponderhit and quit. Searches run on a background thread and
+ * report each completed depth with an info line. Besides Hash and Threads,
+ * the CustomPieces option starts games with the MegaRook and FlipFlopper.
+ */
+public class Uci {
+
+	public static final String ENGINE_NAME = "chess";
+	public static final String ENGINE_AUTHOR = "samuelokrent";
+
+	private static final int MAX_HASH_MB = 4096;
+	private static final int MAX_THREADS = 256;
+
+	// Time kept back from each move's allotment, for passing messages to and from the GUI
+	private static final int MOVE_OVERHEAD_MILLIS = 50;
+
+	// The number of moves assumed left until the next time control, if the GUI doesn't say
+	private static final int DEFAULT_MOVES_TO_GO = 30;
+
+	private final BufferedReader in;
+	private final PrintStream out;
+
+	private final TranspositionTable table = new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB);
+	private int threads = 1;
+	private boolean customPieces = false;
+
+	private Game game;
+
+	// The running search, if any, and the thread that reports its result
+	private volatile ParallelSearch search;
+	private Thread searchThread;
+
+	// Released by stop or ponderhit, when a search must not report its move on its own
+	private CountDownLatch release;
+
+	// The time to give a pondering search once the ponder move is played
+	private long ponderTimeMillis;
+	private final Timer timer = new Timer(true);
+
+	public Uci(InputStream in, PrintStream out) {
+		this.in = new BufferedReader(new InputStreamReader(in));
+		this.out = out;
+		setUpPosition();
+	}
+
+	public static void main(String[] args) throws IOException {
+		new Uci(System.in, System.out).run();
+	}
+
+	/**
+	 * Handles commands until quit is received or the input ends
+	 */
+	public void run() throws IOException {
+		String line;
+		while((line = in.readLine()) != null) {
+			if(!handle(line)) return;
+		}
+		stopSearch();
+	}
+
+	/**
+	 * Handles one command
+	 * @returns False if the command was quit, otherwise true
+	 */
+	public boolean handle(String line) {
+		String[] tokens = line.trim().split("\\s+");
+
+		switch(tokens[0]) {
+
+			case "uci":
+				send("id name " + ENGINE_NAME);
+				send("id author " + ENGINE_AUTHOR);
+				send("option name Hash type spin default " + TranspositionTable.DEFAULT_SIZE_MB + " min 1 max " + MAX_HASH_MB);
+				send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+				send("option name Ponder type check default false");
+				send("option name CustomPieces type check default false");
+				send("uciok");
+				break;
+
+			case "isready":
+				send("readyok");
+				break;
+
+			case "setoption":
+				stopSearch();
+				setOption(tokens);
+				break;
+
+			case "ucinewgame":
+				stopSearch();
+				table.clear();
+				setUpPosition();
+				break;
+
+			case "position":
+				stopSearch();
+				setPosition(tokens);
+				break;
+
+			case "go":
+				stopSearch();
+				go(tokens);
+				break;
+
+			case "stop":
+				stopSearch();
+				break;
+
+			case "ponderhit":
+				ponderHit();
+				break;
+
+			case "quit":
+				stopSearch();
+				return false;
+
+			default:
+				// Unknown commands are ignored, as the protocol asks
+				break;
+		}
+		return true;
+	}
+
+	/**
+	 * Blocks until the running search, if any, has reported its move
+	 */
+	public void waitForSearch() throws InterruptedException {
+		if(searchThread != null) searchThread.join();
+	}
+
+	/**
+	 * Handles "setoption name <name> value <value>"
+	 */
+	private void setOption(String[] tokens) {
+		String name = "";
+		String value = "";
+		for(int i = 1; i < tokens.length; i++) {
+			if(tokens[i].equals("name") && i + 1 < tokens.length) name = tokens[++i];
+			else if(tokens[i].equals("value") && i + 1 < tokens.length) value = tokens[++i];
+		}
+
+		try {
+			switch(name) {
+				case "Hash":
+					table.resize(clamp(Integer.parseInt(value), 1, MAX_HASH_MB));
+					break;
+				case "Threads":
+					threads = clamp(Integer.parseInt(value), 1, MAX_THREADS);
+					break;
+				case "CustomPieces":
+					customPieces = Boolean.parseBoolean(value);
+					setUpPosition();
+					break;
+				default:
+					break;
+			}
+		} catch(NumberFormatException e) {
+			send("info string Invalid value for " + name + ": " + value);
+		}
+	}
+
+	/**
+	 * Handles "position [startpos | fen <fen>] [moves <move>...]"
+	 */
+	private void setPosition(String[] tokens) {
+		int index = 1;
+		if(index < tokens.length && tokens[index].equals("startpos")) {
+			setUpPosition();
+			index++;
+		} else if(index < tokens.length && tokens[index].equals("fen")) {
+			StringBuilder fen = new StringBuilder();
+			for(index++; index < tokens.length && !tokens[index].equals("moves"); index++) {
+				fen.append(tokens[index]).append(' ');
+			}
+			try {
+				game = Fen.createGame(fen);
+			} catch(Chess.ChessError e) {
+				send("info string " + e.getMessage());
+				return;
+			}
+		} else {
+			send("info string Expected startpos or fen");
+			return;
+		}
+
+		if(index < tokens.length && tokens[index].equals("moves")) {
+			MoveList legalMoves = new MoveList();
+			for(index++; index < tokens.length; index++) {
+				int move = parseMove(tokens[index], legalMoves);
+				if(move == Move.NONE) {
+					send("info string Illegal move: " + tokens[index]);
+					return;
+				}
+				game.makeMove(move);
+			}
+		}
+	}
+
+	/**
+	 * Sets up the starting position, with or without the custom pieces
+	 */
+	private void setUpPosition() {
+		boolean wasCustom = Chess.isUsingCustomPieces();
+		Chess.useCustomPieces(customPieces);
+		game = new Game();
+		game.startGame();
+		Chess.useCustomPieces(wasCustom);
+	}
+
+	/**
+	 * @returns The legal move of the current position named in long algebraic notation,
+	 * or Move.NONE if there is none
+	 */
+	private int parseMove(String name, MoveList legalMoves) {
+		if(name.length() != 4) return Move.NONE;
+		int from = Bitboards.parseSquare(name, 0);
+		int to = Bitboards.parseSquare(name, 2);
+
+		legalMoves.clear();
+		game.generateLegalMoves(game.getTurnColor(), legalMoves);
+		for(int i = 0; i < legalMoves.size(); i++) {
+			int move = legalMoves.get(i);
+			if(Move.getFrom(move) == from && Move.getTo(move) == to) return move;
+		}
+		return Move.NONE;
+	}
+
+	/**
+	 * Handles "go" with any of depth, nodes, movetime, wtime, btime, winc, binc,
+	 * movestogo, infinite and ponder, and starts the search
+	 */
+	private void go(String[] tokens) {
+		SearchLimits limits = new SearchLimits();
+		long time = -1;
+		long increment = 0;
+		int movesToGo = DEFAULT_MOVES_TO_GO;
+		boolean ponder = false;
+		boolean infinite = false;
+		boolean white = game.getTurnColor() == Chess.Color.WHITE;
+
+		try {
+			for(int i = 1; i < tokens.length; i++) {
+				switch(tokens[i]) {
+					case "ponder": ponder = true; break;
+					case "infinite": infinite = true; break;
+					case "depth": limits.maxDepth = clamp((int) parseValue(tokens, ++i), 1, SearchLimits.MAX_DEPTH); break;
+					case "nodes": limits.maxNodes = Math.max(1, parseValue(tokens, ++i)); break;
+					case "movetime": limits.maxTimeMillis = Math.max(1, parseValue(tokens, ++i) - MOVE_OVERHEAD_MILLIS); break;
+					case "wtime": if(white) time = parseValue(tokens, ++i); else i++; break;
+					case "btime": if(!white) time = parseValue(tokens, ++i); else i++; break;
+					case "winc": if(white) increment = parseValue(tokens, ++i); else i++; break;
+					case "binc": if(!white) increment = parseValue(tokens, ++i); else i++; break;
+					case "movestogo": movesToGo = (int) Math.max(1, parseValue(tokens, ++i)); break;
+					default: break;
+				}
+			}
+		} catch(NumberFormatException e) {
+			send("info string Invalid go command");
+			return;
+		}
+
+		if(time >= 0 && limits.maxTimeMillis == 0) {
+			long allotted = Math.min(time / movesToGo + increment * 3 / 4, time - MOVE_OVERHEAD_MILLIS);
+			limits.maxTimeMillis = Math.max(1, allotted);
+		}
+
+		// A pondering search only starts its clock once the ponder move is played
+		ponderTimeMillis = 0;
+		if(ponder) {
+			ponderTimeMillis = limits.maxTimeMillis;
+			limits.maxTimeMillis = 0;
+		}
+
+		release = new CountDownLatch((ponder || infinite) ? 1 : 0);
+		startSearch(limits);
+	}
+
+	private void startSearch(SearchLimits limits) {
+		ParallelSearch search = new ParallelSearch(game, table, threads);
+		search.setSearchEventListener(result -> sendInfo(result));
+		this.search = search;
+
+		CountDownLatch release = this.release;
+		searchThread = new Thread(() -> {
+			SearchResult result = null;
+			try {
+				result = search.search(limits);
+
+				// Searches that are pondering or infinite wait to be told to report
+				release.await();
+			} catch(Exception e) {
+				send("info string Search failed: " + e);
+			}
+			sendBestMove(result);
+		});
+		searchThread.start();
+	}
+
+	/**
+	 * Stops the running search, if any, and waits for it to report its move
+	 */
+	private void stopSearch() {
+		ParallelSearch search = this.search;
+		if(search == null) return;
+
+		search.stop();
+		release.countDown();
+		try {
+			waitForSearch();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.search = null;
+	}
+
+	/**
+	 * The opponent played the move being pondered on, so the search goes on as a normal one
+	 */
+	private void ponderHit() {
+		ParallelSearch search = this.search;
+		if(search == null) return;
+
+		if(ponderTimeMillis > 0) {
+			timer.schedule(new TimerTask() {
+				public void run() {
+					search.stop();
+				}
+			}, ponderTimeMillis);
+		}
+		release.countDown();
+	}
+
+	private void sendInfo(SearchResult result) {
+		String score = result.isMateScore() ? "mate " + result.getMateInMoves() : "cp " + result.score;
+		String info = "info depth " + result.depth + " score " + score + " nodes " + result.nodes +
+			" nps " + result.getNodesPerSecond() + " time " + result.timeMillis + " hashfull " + table.hashfull();
+
+		if(result.principalVariation.length > 0) {
+			info += " pv";
+			for(int move : result.principalVariation) {
+				info += " " + Move.toLongAlgebraic(move);
+			}
+		}
+		send(info);
+	}
+
+	private void sendBestMove(SearchResult result) {
+		if(result == null || result.getBestMove() == Move.NONE) {
+			send("bestmove 0000");
+			return;
+		}
+
+		String bestMove = "bestmove " + Move.toLongAlgebraic(result.getBestMove());
+		if(result.principalVariation.length > 1)
+			bestMove += " ponder " + Move.toLongAlgebraic(result.principalVariation[1]);
+		send(bestMove);
+	}
+
+	/**
+	 * Writes a line to the GUI, from either the command or the search thread
+	 */
+	private void send(String line) {
+		synchronized(out) {
+			out.println(line);
+			out.flush();
+		}
+	}
+
+	/**
+	 * @returns The number at the given index of the command
+	 */
+	private static long parseValue(String[] tokens, int index) {
+		if(index >= tokens.length) throw new NumberFormatException("Missing value");
+		return Long.parseLong(tokens[index]);
+	}
+
+	private static int clamp(int value, int min, int max) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+}